@@ -0,0 +1,212 @@
+package br.com.idhub.custody.config;
+
+import io.reactivex.Flowable;
+import org.web3j.protocol.Web3jService;
+import org.web3j.protocol.core.BatchRequest;
+import org.web3j.protocol.core.BatchResponse;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.websocket.events.Notification;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transporte Web3j que agrupa chamadas de leitura concorrentes (eth_call) em um único
+ * batch JSON-RPC: acumula as requisições por uma janela curta ou até N itens e
+ * distribui as respostas de volta pelo id de cada requisição.
+ */
+public class BatchingWeb3jService implements Web3jService {
+
+    private static final Set<String> BATCHED_METHODS = Set.of("eth_call");
+
+    private final Web3jService delegate;
+    private final long windowMs;
+    private final int maxBatchSize;
+
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService ioExecutor;
+
+    private final Object lock = new Object();
+    private List<PendingCall<?>> queue = new ArrayList<>();
+    private ScheduledFuture<?> scheduledFlush;
+
+    public BatchingWeb3jService(Web3jService delegate, long windowMs, int maxBatchSize, int ioThreads) {
+        this.delegate = delegate;
+        this.windowMs = windowMs;
+        this.maxBatchSize = maxBatchSize;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "rpc-batch-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.ioExecutor = Executors.newFixedThreadPool(ioThreads, runnable -> {
+            Thread thread = new Thread(runnable, "rpc-batch-io");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // A assinatura do Web3jService usa Request e Response crus
+    @SuppressWarnings("rawtypes")
+    @Override
+    public <T extends Response> T send(Request request, Class<T> responseType) throws IOException {
+        if (!isBatched(request)) {
+            return delegate.send(request, responseType);
+        }
+
+        try {
+            return sendAsync(request, responseType).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrompido aguardando resposta do batch JSON-RPC", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    // A assinatura do Web3jService usa Request e Response crus
+    @SuppressWarnings("rawtypes")
+    @Override
+    public <T extends Response> CompletableFuture<T> sendAsync(Request request, Class<T> responseType) {
+        if (!isBatched(request)) {
+            return delegate.sendAsync(request, responseType);
+        }
+
+        @SuppressWarnings("unchecked")
+        PendingCall<T> call = new PendingCall<>((Request<?, ? extends Response<?>>) request, responseType);
+        List<PendingCall<?>> ready = null;
+
+        synchronized (lock) {
+            queue.add(call);
+            if (queue.size() >= maxBatchSize) {
+                ready = drain();
+            } else if (scheduledFlush == null) {
+                scheduledFlush = scheduler.schedule(this::flushQueued, windowMs, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        if (ready != null) {
+            List<PendingCall<?>> batch = ready;
+            ioExecutor.execute(() -> dispatch(batch));
+        }
+        return call.future;
+    }
+
+    @Override
+    public BatchResponse sendBatch(BatchRequest batchRequest) throws IOException {
+        return delegate.sendBatch(batchRequest);
+    }
+
+    @Override
+    public CompletableFuture<BatchResponse> sendBatchAsync(BatchRequest batchRequest) {
+        return delegate.sendBatchAsync(batchRequest);
+    }
+
+    // A assinatura do Web3jService usa Request e Response crus
+    @SuppressWarnings("rawtypes")
+    @Override
+    public <T extends Notification<?>> Flowable<T> subscribe(Request request, String unsubscribeMethod, Class<T> responseType) {
+        return delegate.subscribe(request, unsubscribeMethod, responseType);
+    }
+
+    @Override
+    public void close() throws IOException {
+        scheduler.shutdownNow();
+        flushQueued();
+        ioExecutor.shutdown();
+        delegate.close();
+    }
+
+    private boolean isBatched(Request<?, ?> request) {
+        return BATCHED_METHODS.contains(request.getMethod());
+    }
+
+    private void flushQueued() {
+        List<PendingCall<?>> ready;
+        synchronized (lock) {
+            ready = drain();
+        }
+        if (!ready.isEmpty()) {
+            ioExecutor.execute(() -> dispatch(ready));
+        }
+    }
+
+    private List<PendingCall<?>> drain() {
+        List<PendingCall<?>> ready = queue;
+        queue = new ArrayList<>();
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+        return ready;
+    }
+
+    private void dispatch(List<PendingCall<?>> calls) {
+        // Uma única chamada não compensa o envelope de batch
+        if (calls.size() == 1) {
+            calls.get(0).sendDirect(delegate);
+            return;
+        }
+
+        BatchRequest batch = new BatchRequest(delegate);
+        Map<Long, PendingCall<?>> callsById = new HashMap<>();
+        for (PendingCall<?> call : calls) {
+            batch.add(call.request);
+            callsById.put(call.request.getId(), call);
+        }
+
+        try {
+            BatchResponse batchResponse = delegate.sendBatch(batch);
+            for (Response<?> response : batchResponse.getResponses()) {
+                PendingCall<?> call = callsById.remove(response.getId());
+                if (call != null) {
+                    call.complete(response);
+                }
+            }
+            callsById.values().forEach(call -> call.future.completeExceptionally(
+                    new IOException("Resposta ausente no batch JSON-RPC para id " + call.request.getId())));
+        } catch (Exception e) {
+            calls.forEach(call -> call.future.completeExceptionally(e));
+        }
+    }
+
+    // T herda o limite cru (Response) dos métodos do Web3jService
+    @SuppressWarnings("rawtypes")
+    private static final class PendingCall<T extends Response> {
+        private final Request<?, ? extends Response<?>> request;
+        private final Class<T> responseType;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+
+        private PendingCall(Request<?, ? extends Response<?>> request, Class<T> responseType) {
+            this.request = request;
+            this.responseType = responseType;
+        }
+
+        private void complete(Response<?> response) {
+            future.complete(responseType.cast(response));
+        }
+
+        private void sendDirect(Web3jService service) {
+            try {
+                future.complete(service.send(request, responseType));
+            } catch (Exception e) {
+                future.completeExceptionally(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,494 @@
+package br.com.idhub.custody.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.reactivex.Flowable;
+import org.web3j.crypto.Hash;
+import org.web3j.crypto.RawTransaction;
+import org.web3j.crypto.SignedRawTransaction;
+import org.web3j.crypto.TransactionDecoder;
+import org.web3j.protocol.Web3jService;
+import org.web3j.protocol.core.BatchRequest;
+import org.web3j.protocol.core.BatchResponse;
+import org.web3j.protocol.core.DefaultBlockParameterNumber;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.core.methods.response.EthBlockNumber;
+import org.web3j.protocol.core.methods.response.EthSendTransaction;
+import org.web3j.protocol.websocket.events.Notification;
+import org.web3j.utils.Async;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Transporte Web3j sobre vários nós RPC da rede Besu:
+ * - transações e consultas de nonce de um remetente vão sempre ao mesmo nó, preservando a ordem
+ *   dos nonces; o remetente só muda de nó quando o seu é ejetado
+ * - leituras de posição na cadeia (head, blocos, logs, recibos) vão a um nó âncora, para que o
+ *   head, os logs do indexador e os recibos venham da mesma visão da cadeia
+ * - as demais leituras (eth_call, em lote ou não) são distribuídas por menor latência ou round-robin
+ * Um health check periódico (eth_blockNumber) ejeta nós inacessíveis ou mais de max-block-lag
+ * blocos atrás do mais alto e os readmite quando se recuperam. Falha de I/O ejeta o nó na hora e a
+ * chamada segue para o próximo; leitura em um bloco que o nó ainda não tem também segue adiante.
+ */
+public class LoadBalancedWeb3jService implements Web3jService {
+
+    public enum Strategy { LEAST_LATENCY, ROUND_ROBIN }
+
+    private static final Set<String> SENDER_METHODS = Set.of("eth_sendRawTransaction", "eth_getTransactionCount");
+
+    private static final Set<String> CHAIN_METHODS = Set.of(
+        "eth_blockNumber", "eth_getBlockByNumber", "eth_getBlockByHash", "eth_getLogs",
+        "eth_getTransactionReceipt", "eth_getTransactionByHash");
+
+    private final List<Node> nodes = new ArrayList<>();
+    private final Strategy strategy;
+    private final long maxBlockLag;
+    private final long healthCheckIntervalMs;
+
+    private final ConcurrentHashMap<String, Node> senderNodes = new ConcurrentHashMap<>();
+    private final AtomicInteger roundRobin = new AtomicInteger();
+    private final AtomicLong failovers = new AtomicLong();
+    private volatile Node anchor;
+
+    private final ScheduledExecutorService scheduler;
+
+    public LoadBalancedWeb3jService(Map<String, Web3jService> services, Strategy strategy, long maxBlockLag,
+                                    long healthCheckIntervalMs, MeterRegistry meterRegistry) {
+        this.strategy = strategy;
+        this.maxBlockLag = maxBlockLag;
+        this.healthCheckIntervalMs = healthCheckIntervalMs;
+
+        services.forEach((url, service) -> nodes.add(new Node(label(url), service)));
+        anchor = nodes.get(0);
+
+        for (Node node : nodes) {
+            Gauge.builder("web3.node.healthy", node, n -> n.healthy ? 1 : 0)
+                    .description("1 se o nó RPC está em uso, 0 se ejetado")
+                    .tag("node", node.label)
+                    .register(meterRegistry);
+            Gauge.builder("web3.node.block_lag", node, n -> n.lag)
+                    .description("Blocos atrás do nó mais alto na última verificação (-1 = sem resposta)")
+                    .tag("node", node.label)
+                    .register(meterRegistry);
+            Gauge.builder("web3.node.latency_ms", node, n -> n.latencyMs)
+                    .description("Latência média móvel das chamadas ao nó")
+                    .tag("node", node.label)
+                    .register(meterRegistry);
+            Gauge.builder("web3.node.in_flight", node, n -> n.inFlight.get())
+                    .description("Chamadas em andamento no nó")
+                    .tag("node", node.label)
+                    .register(meterRegistry);
+        }
+        FunctionCounter.builder("web3.node.failovers", failovers, AtomicLong::get)
+                .description("Chamadas repetidas em outro nó por falha ou atraso do primeiro")
+                .register(meterRegistry);
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "rpc-node-health");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::healthCheck, 0, healthCheckIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    // A assinatura do Web3jService usa Request e Response crus
+    @SuppressWarnings("rawtypes")
+    @Override
+    public <T extends Response> T send(Request request, Class<T> responseType) throws IOException {
+        Route route = route(List.of(request));
+        Set<Node> tried = new HashSet<>();
+        T lastResponse = null;
+        IOException lastError = null;
+
+        for (int attempt = 0; attempt < nodes.size(); attempt++) {
+            Node node = select(route, tried);
+            if (node == null) {
+                break;
+            }
+            tried.add(node);
+
+            T response;
+            try {
+                response = node.call(() -> node.service.send(request, responseType));
+            } catch (IOException e) {
+                eject(node, e.getMessage());
+                failovers.incrementAndGet();
+                lastError = e;
+                continue;
+            }
+
+            if (isBehind(request, response) && tried.size() < nodes.size()) {
+                failovers.incrementAndGet();
+                lastResponse = response;
+                continue;
+            }
+            if (attempt > 0) {
+                return alreadyKnownAsSent(request, response, responseType);
+            }
+            return response;
+        }
+
+        if (lastResponse != null) {
+            return lastResponse;
+        }
+        throw lastError != null ? lastError : new IOException("Nenhum nó RPC disponível");
+    }
+
+    // A assinatura do Web3jService usa Request e Response crus
+    @SuppressWarnings("rawtypes")
+    @Override
+    public <T extends Response> CompletableFuture<T> sendAsync(Request request, Class<T> responseType) {
+        return Async.run(() -> send(request, responseType));
+    }
+
+    @Override
+    public BatchResponse sendBatch(BatchRequest batchRequest) throws IOException {
+        Route route = route(new ArrayList<>(batchRequest.getRequests()));
+        Set<Node> tried = new HashSet<>();
+        BatchResponse lastResponse = null;
+        IOException lastError = null;
+
+        for (int attempt = 0; attempt < nodes.size(); attempt++) {
+            Node node = select(route, tried);
+            if (node == null) {
+                break;
+            }
+            tried.add(node);
+
+            BatchResponse response;
+            try {
+                response = node.call(() -> node.service.sendBatch(batchRequest));
+            } catch (IOException e) {
+                eject(node, e.getMessage());
+                failovers.incrementAndGet();
+                lastError = e;
+                continue;
+            }
+
+            if (isBehind(response) && tried.size() < nodes.size()) {
+                failovers.incrementAndGet();
+                lastResponse = response;
+                continue;
+            }
+            return response;
+        }
+
+        if (lastResponse != null) {
+            return lastResponse;
+        }
+        throw lastError != null ? lastError : new IOException("Nenhum nó RPC disponível");
+    }
+
+    @Override
+    public CompletableFuture<BatchResponse> sendBatchAsync(BatchRequest batchRequest) {
+        return Async.run(() -> sendBatch(batchRequest));
+    }
+
+    // A assinatura do Web3jService usa Request e Response crus
+    @SuppressWarnings("rawtypes")
+    @Override
+    public <T extends Notification<?>> Flowable<T> subscribe(Request request, String unsubscribeMethod, Class<T> responseType) {
+        return nodes.get(0).service.subscribe(request, unsubscribeMethod, responseType);
+    }
+
+    @Override
+    public void close() throws IOException {
+        scheduler.shutdownNow();
+        for (Node node : nodes) {
+            node.service.close();
+        }
+    }
+
+    /**
+     * Como rotear as requisições: pelo remetente, pela âncora ou pela estratégia; e o bloco mínimo pedido
+     */
+    private record Route(String sender, boolean chain, long minBlock) {}
+
+    private Route route(List<Request<?, ?>> requests) {
+        String sender = null;
+        boolean chain = false;
+        long minBlock = -1;
+        for (Request<?, ?> request : requests) {
+            if (sender == null && SENDER_METHODS.contains(request.getMethod())) {
+                sender = sender(request);
+            }
+            chain |= CHAIN_METHODS.contains(request.getMethod());
+            minBlock = Math.max(minBlock, requestedBlock(request));
+        }
+        return new Route(sender, chain, minBlock);
+    }
+
+    private Node select(Route route, Set<Node> tried) {
+        List<Node> candidates = new ArrayList<>();
+        for (Node node : nodes) {
+            if (node.healthy && !tried.contains(node)) {
+                candidates.add(node);
+            }
+        }
+        if (candidates.isEmpty()) {
+            // Todos ejetados: melhor tentar um nó suspeito do que falhar sem tentar
+            nodes.stream().filter(node -> !tried.contains(node)).forEach(candidates::add);
+        }
+        if (candidates.isEmpty()) {
+            return null;
+        }
+
+        if (route.sender() != null) {
+            return senderNode(route.sender(), candidates);
+        }
+        if (route.chain()) {
+            return anchorNode(candidates);
+        }
+
+        // Leitura em um bloco específico: preferir nós que já o tinham na última verificação
+        if (route.minBlock() >= 0) {
+            List<Node> caughtUp = candidates.stream().filter(node -> node.blockNumber >= route.minBlock()).toList();
+            if (!caughtUp.isEmpty()) {
+                candidates = caughtUp;
+            }
+        }
+        if (strategy == Strategy.ROUND_ROBIN) {
+            return candidates.get(Math.floorMod(roundRobin.getAndIncrement(), candidates.size()));
+        }
+        // Latência ponderada pela carga: nó rápido e ocupado cede para o próximo
+        return candidates.stream()
+                .min(Comparator.comparingDouble(node -> node.latencyMs * (node.inFlight.get() + 1)))
+                .orElseThrow();
+    }
+
+    private Node senderNode(String sender, List<Node> candidates) {
+        return senderNodes.compute(sender, (key, current) -> {
+            if (current != null && candidates.contains(current)) {
+                return current;
+            }
+            // Rendezvous hashing: remetentes se espalham entre os nós e só mudam os do nó que saiu
+            Node chosen = candidates.stream()
+                    .max(Comparator.comparingInt(node -> (key + node.label).hashCode()))
+                    .orElseThrow();
+            if (current != null) {
+                System.out.println("Transações de " + key + " passam do nó " + current.label + " para " + chosen.label);
+            }
+            return chosen;
+        });
+    }
+
+    private Node anchorNode(List<Node> candidates) {
+        Node current = anchor;
+        if (candidates.contains(current)) {
+            return current;
+        }
+        Node chosen = candidates.stream().max(Comparator.comparingLong(node -> node.blockNumber)).orElseThrow();
+        if (current.healthy) {
+            // Âncora só falhou nesta chamada (ex.: bloco ausente): não trocar de âncora por isso
+            return chosen;
+        }
+        anchor = chosen;
+        System.out.println("Nó âncora RPC passa a ser " + chosen.label);
+        return chosen;
+    }
+
+    private void healthCheck() {
+        try {
+            Map<Node, CompletableFuture<EthBlockNumber>> checks = new LinkedHashMap<>();
+            for (Node node : nodes) {
+                Request<?, EthBlockNumber> request =
+                    new Request<>("eth_blockNumber", List.of(), node.service, EthBlockNumber.class);
+                long start = System.nanoTime();
+                checks.put(node, node.service.sendAsync(request, EthBlockNumber.class)
+                    .thenApply(response -> {
+                        node.recordLatency(System.nanoTime() - start);
+                        return response;
+                    }));
+            }
+
+            long deadline = System.currentTimeMillis() + healthCheckIntervalMs;
+            Map<Node, Long> heights = new HashMap<>();
+            for (Map.Entry<Node, CompletableFuture<EthBlockNumber>> check : checks.entrySet()) {
+                try {
+                    long wait = Math.max(1, deadline - System.currentTimeMillis());
+                    EthBlockNumber response = check.getValue().get(wait, TimeUnit.MILLISECONDS);
+                    if (!response.hasError()) {
+                        heights.put(check.getKey(), response.getBlockNumber().longValue());
+                    }
+                } catch (Exception e) {
+                    check.getValue().cancel(true);
+                }
+            }
+
+            long highest = heights.values().stream().mapToLong(Long::longValue).max().orElse(-1);
+            for (Node node : nodes) {
+                Long height = heights.get(node);
+                if (height == null) {
+                    node.lag = -1;
+                    eject(node, "sem resposta ao eth_blockNumber");
+                    continue;
+                }
+                node.blockNumber = height;
+                node.lag = highest - height;
+                if (node.lag > maxBlockLag) {
+                    eject(node, node.lag + " blocos atrás do nó mais alto");
+                } else if (!node.healthy) {
+                    node.healthy = true;
+                    System.out.println("Nó RPC " + node.label + " readmitido (bloco " + height + ")");
+                }
+            }
+
+            if (!anchor.healthy) {
+                nodes.stream().filter(node -> node.healthy).max(Comparator.comparingLong(node -> node.blockNumber))
+                     .ifPresent(node -> {
+                         anchor = node;
+                         System.out.println("Nó âncora RPC passa a ser " + node.label);
+                     });
+            }
+        } catch (Throwable e) {
+            System.out.println("Erro no health check dos nós RPC: " + e.getMessage());
+        }
+    }
+
+    private void eject(Node node, String reason) {
+        if (node.healthy) {
+            node.healthy = false;
+            System.out.println("Nó RPC " + node.label + " ejetado: " + reason);
+        }
+    }
+
+    /**
+     * Resposta de leitura em bloco específico que o nó ainda não tem (erro de bloco ausente ou resultado nulo)
+     */
+    private static boolean isBehind(Request<?, ?> request, Response<?> response) {
+        if (requestedBlock(request) < 0) {
+            return false;
+        }
+        if (response.hasError()) {
+            String message = response.getError().getMessage();
+            return message != null && message.toLowerCase().contains("not found");
+        }
+        return response.getResult() == null;
+    }
+
+    private static boolean isBehind(BatchResponse batchResponse) {
+        Map<Long, Request<?, ?>> requestsById = new HashMap<>();
+        batchResponse.getRequests().forEach(request -> requestsById.put(request.getId(), request));
+        for (Response<?> response : batchResponse.getResponses()) {
+            Request<?, ?> request = requestsById.get(response.getId());
+            if (request != null && isBehind(request, response)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long requestedBlock(Request<?, ?> request) {
+        for (Object param : request.getParams()) {
+            if (param instanceof DefaultBlockParameterNumber number) {
+                return number.getBlockNumber().longValue();
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Transação reenviada a outro nó depois de falha de I/O: se o primeiro já a propagou, o novo nó
+     * responde "known transaction"; é o mesmo envio, então devolve o hash como sucesso
+     */
+    // T herda o limite cru (Response) dos métodos do Web3jService
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <T extends Response> T alreadyKnownAsSent(Request<?, ?> request, T response, Class<T> responseType) {
+        if (!"eth_sendRawTransaction".equals(request.getMethod()) || !response.hasError() ||
+            !(response instanceof EthSendTransaction)) {
+            return response;
+        }
+        String message = response.getError().getMessage();
+        if (message == null || !message.toLowerCase().contains("known transaction") &&
+                               !message.toLowerCase().contains("already known")) {
+            return response;
+        }
+        EthSendTransaction sent = new EthSendTransaction();
+        sent.setId(response.getId());
+        sent.setJsonrpc(response.getJsonrpc());
+        sent.setResult(Hash.sha3((String) request.getParams().get(0)));
+        return responseType.cast(sent);
+    }
+
+    private static String sender(Request<?, ?> request) {
+        if (request.getParams().isEmpty() || !(request.getParams().get(0) instanceof String first)) {
+            return null;
+        }
+        if ("eth_getTransactionCount".equals(request.getMethod())) {
+            return first.toLowerCase();
+        }
+        try {
+            RawTransaction transaction = TransactionDecoder.decode(first);
+            return transaction instanceof SignedRawTransaction signed ? signed.getFrom().toLowerCase() : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * Rótulo do nó para logs e métricas: só host e porta (a URL pode trazer credenciais ou chave de API)
+     */
+    private static String label(String url) {
+        try {
+            URI uri = URI.create(url);
+            return uri.getPort() > 0 ? uri.getHost() + ":" + uri.getPort() : uri.getHost();
+        } catch (Exception e) {
+            return "node-" + Integer.toHexString(url.hashCode());
+        }
+    }
+
+    @FunctionalInterface
+    private interface NodeCall<T> {
+        T run() throws IOException;
+    }
+
+    private static final class Node {
+        private final String label;
+        private final Web3jService service;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private volatile double latencyMs;
+        private volatile long blockNumber = -1;
+        private volatile long lag;
+        private volatile boolean healthy = true;
+
+        private Node(String label, Web3jService service) {
+            this.label = label;
+            this.service = service;
+        }
+
+        private <T> T call(NodeCall<T> call) throws IOException {
+            inFlight.incrementAndGet();
+            long start = System.nanoTime();
+            try {
+                T result = call.run();
+                recordLatency(System.nanoTime() - start);
+                return result;
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        }
+
+        private void recordLatency(long nanos) {
+            double ms = nanos / 1_000_000.0;
+            latencyMs = latencyMs == 0 ? ms : latencyMs * 0.8 + ms * 0.2;
+        }
+    }
+}
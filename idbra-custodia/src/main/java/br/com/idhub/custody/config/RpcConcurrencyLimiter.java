@@ -0,0 +1,60 @@
+package br.com.idhub.custody.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import okhttp3.Interceptor;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limite de chamadas simultâneas por nó (host e porta). O HttpService do web3j usa chamadas
+ * síncronas (execute), que não passam pelo limite por host do Dispatcher do OkHttp; sem este
+ * limite cada thread do pool assíncrono do web3j abriria sua própria conexão.
+ */
+public class RpcConcurrencyLimiter implements Interceptor {
+
+    private final int maxConcurrentCalls;
+    private final ConcurrentHashMap<String, Semaphore> permitsByHost = new ConcurrentHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    public RpcConcurrencyLimiter(int maxConcurrentCalls, MeterRegistry meterRegistry) {
+        this.maxConcurrentCalls = maxConcurrentCalls;
+
+        Gauge.builder("web3.http.in_flight", inFlight, AtomicInteger::get)
+                .description("Chamadas HTTP ao nó em andamento")
+                .register(meterRegistry);
+        Gauge.builder("web3.http.waiting", waiting, AtomicInteger::get)
+                .description("Chamadas aguardando vaga no limite de chamadas simultâneas")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        String host = chain.request().url().host() + ":" + chain.request().url().port();
+        Semaphore permits = permitsByHost.computeIfAbsent(host, key -> new Semaphore(maxConcurrentCalls, true));
+
+        waiting.incrementAndGet();
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrompido aguardando vaga para chamada ao nó");
+        } finally {
+            waiting.decrementAndGet();
+        }
+
+        inFlight.incrementAndGet();
+        try {
+            return chain.proceed(chain.request());
+        } finally {
+            inFlight.decrementAndGet();
+            permits.release();
+        }
+    }
+}
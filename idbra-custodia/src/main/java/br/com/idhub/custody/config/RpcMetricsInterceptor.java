@@ -0,0 +1,64 @@
+package br.com.idhub.custody.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okio.Buffer;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Mede a latência de cada chamada HTTP ao nó (web3.rpc.latency), por método JSON-RPC
+ * ("batch" para requisições em lote) e resultado (success, http_<status> ou io_error).
+ */
+public class RpcMetricsInterceptor implements Interceptor {
+
+    private static final Pattern METHOD = Pattern.compile("\"method\"\\s*:\\s*\"([^\"]+)\"");
+
+    private final MeterRegistry meterRegistry;
+
+    public RpcMetricsInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        String method = method(request.body());
+        long start = System.nanoTime();
+        String outcome = "io_error";
+        try {
+            Response response = chain.proceed(request);
+            outcome = response.isSuccessful() ? "success" : "http_" + response.code();
+            return response;
+        } finally {
+            Timer.builder("web3.rpc.latency")
+                    .description("Latência das chamadas JSON-RPC ao nó (HTTP)")
+                    .tag("method", method)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static String method(RequestBody body) throws IOException {
+        if (body == null) {
+            return "unknown";
+        }
+        Buffer buffer = new Buffer();
+        body.writeTo(buffer);
+        String json = buffer.readUtf8();
+        if (json.stripLeading().startsWith("[")) {
+            return "batch";
+        }
+        Matcher matcher = METHOD.matcher(json);
+        return matcher.find() ? matcher.group(1) : "unknown";
+    }
+}
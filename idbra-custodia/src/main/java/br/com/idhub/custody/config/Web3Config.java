@@ -1,19 +1,89 @@
 package br.com.idhub.custody.config;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.web3j.protocol.Web3j;
+import org.web3j.protocol.Web3jService;
 import org.web3j.protocol.http.HttpService;
 import org.web3j.crypto.Credentials;
 import org.web3j.crypto.WalletUtils;
 
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
 @Configuration
 public class Web3Config {
 
     @Value("${web3.node.url:http://localhost:8545}")
     private String nodeUrl;
 
+    // Lista de nós RPC separada por vírgula; com mais de um, o transporte balanceia entre eles
+    @Value("${web3.node.urls:}")
+    private String nodeUrls;
+
+    @Value("${web3.load-balancing.strategy:least-latency}")
+    private String loadBalancingStrategy;
+
+    // Nó mais que isso atrás do mais alto sai do balanceamento até alcançar
+    @Value("${web3.load-balancing.max-block-lag:2}")
+    private long maxBlockLag;
+
+    @Value("${web3.load-balancing.health-check-interval-ms:2000}")
+    private long healthCheckIntervalMs;
+
+    @Value("${web3.rpc.batch.enabled:true}")
+    private boolean batchEnabled;
+
+    @Value("${web3.rpc.batch.window-ms:2}")
+    private long batchWindowMs;
+
+    @Value("${web3.rpc.batch.max-size:50}")
+    private int batchMaxSize;
+
+    @Value("${web3.rpc.batch.io-threads:4}")
+    private int batchIoThreads;
+
+    @Value("${web3.http.max-idle-connections:32}")
+    private int maxIdleConnections;
+
+    @Value("${web3.http.keep-alive-ms:300000}")
+    private long keepAliveMs;
+
+    @Value("${web3.http.max-requests:128}")
+    private int maxRequests;
+
+    @Value("${web3.http.max-requests-per-host:64}")
+    private int maxRequestsPerHost;
+
+    @Value("${web3.http.connect-timeout-ms:5000}")
+    private long connectTimeoutMs;
+
+    @Value("${web3.http.read-timeout-ms:30000}")
+    private long readTimeoutMs;
+
+    @Value("${web3.http.write-timeout-ms:10000}")
+    private long writeTimeoutMs;
+
+    // 0 = sem limite para a chamada inteira (só os timeouts de conexão, leitura e escrita)
+    @Value("${web3.http.call-timeout-ms:0}")
+    private long callTimeoutMs;
+
+    @Value("${web3.http.gzip:true}")
+    private boolean gzip;
+
+    @Value("${web3.http.http2:false}")
+    private boolean http2;
+
     @Value("${web3.chain.id:1337}")
     private Long chainId;
 
@@ -24,8 +94,90 @@ public class Web3Config {
     private String walletPassword;
 
     @Bean
-    public Web3j web3j() {
-        return Web3j.build(new HttpService(nodeUrl));
+    public OkHttpClient web3HttpClient(MeterRegistry meterRegistry) {
+        ConnectionPool connectionPool = new ConnectionPool(maxIdleConnections, keepAliveMs, TimeUnit.MILLISECONDS);
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(maxRequests);
+        dispatcher.setMaxRequestsPerHost(maxRequestsPerHost);
+
+        OkHttpClient.Builder builder = new OkHttpClient.Builder()
+                .connectionPool(connectionPool)
+                .dispatcher(dispatcher)
+                .connectTimeout(connectTimeoutMs, TimeUnit.MILLISECONDS)
+                .readTimeout(readTimeoutMs, TimeUnit.MILLISECONDS)
+                .writeTimeout(writeTimeoutMs, TimeUnit.MILLISECONDS)
+                .callTimeout(callTimeoutMs, TimeUnit.MILLISECONDS)
+                .retryOnConnectionFailure(true)
+                .protocols(protocols())
+                .addInterceptor(new RpcConcurrencyLimiter(maxRequestsPerHost, meterRegistry))
+                .addInterceptor(new RpcMetricsInterceptor(meterRegistry));
+        if (!gzip) {
+            // O OkHttp pede gzip e descompacta sozinho; identity desliga a compressão das respostas
+            builder.addInterceptor(chain -> chain.proceed(
+                    chain.request().newBuilder().header("Accept-Encoding", "identity").build()));
+        }
+
+        Gauge.builder("web3.http.pool.connections", connectionPool, ConnectionPool::connectionCount)
+                .description("Conexões abertas com o nó")
+                .register(meterRegistry);
+        Gauge.builder("web3.http.pool.idle_connections", connectionPool, ConnectionPool::idleConnectionCount)
+                .description("Conexões ociosas no pool")
+                .register(meterRegistry);
+        Gauge.builder("web3.http.pool.utilization", connectionPool,
+                      pool -> (double) (pool.connectionCount() - pool.idleConnectionCount()) / maxIdleConnections)
+                .description("Conexões em uso em relação ao tamanho do pool")
+                .register(meterRegistry);
+        Gauge.builder("web3.http.dispatcher.running", dispatcher, Dispatcher::runningCallsCount)
+                .description("Chamadas em execução no cliente HTTP")
+                .register(meterRegistry);
+        Gauge.builder("web3.http.dispatcher.queued", dispatcher, Dispatcher::queuedCallsCount)
+                .description("Chamadas assíncronas na fila do dispatcher")
+                .register(meterRegistry);
+
+        return builder.build();
+    }
+
+    @Bean
+    public Web3j web3j(OkHttpClient web3HttpClient, MeterRegistry meterRegistry) {
+        Web3jService transport = transport(web3HttpClient, meterRegistry);
+        if (!batchEnabled) {
+            return Web3j.build(transport);
+        }
+        return Web3j.build(new BatchingWeb3jService(transport, batchWindowMs, batchMaxSize, batchIoThreads));
+    }
+
+    private Web3jService transport(OkHttpClient httpClient, MeterRegistry meterRegistry) {
+        List<String> urls = nodeUrls();
+        if (urls.size() == 1) {
+            return new HttpService(urls.get(0), httpClient);
+        }
+
+        Map<String, Web3jService> services = new LinkedHashMap<>();
+        urls.forEach(url -> services.put(url, new HttpService(url, httpClient)));
+        LoadBalancedWeb3jService.Strategy strategy =
+            LoadBalancedWeb3jService.Strategy.valueOf(loadBalancingStrategy.trim().toUpperCase().replace('-', '_'));
+        System.out.println("Balanceando JSON-RPC entre " + urls.size() + " nós (" + loadBalancingStrategy + ")");
+        return new LoadBalancedWeb3jService(services, strategy, maxBlockLag, healthCheckIntervalMs, meterRegistry);
+    }
+
+    private List<String> nodeUrls() {
+        List<String> urls = Arrays.stream(nodeUrls.split(","))
+                .map(String::trim)
+                .filter(url -> !url.isEmpty())
+                .distinct()
+                .toList();
+        return urls.isEmpty() ? List.of(nodeUrl) : urls;
+    }
+
+    /**
+     * HTTP/2 em https é negociado via ALPN; em http exige nó que aceite h2 sem TLS (prior knowledge)
+     */
+    private List<Protocol> protocols() {
+        if (!http2) {
+            return List.of(Protocol.HTTP_1_1);
+        }
+        return nodeUrls().get(0).startsWith("https") ? List.of(Protocol.HTTP_2, Protocol.HTTP_1_1)
+                                           : List.of(Protocol.H2_PRIOR_KNOWLEDGE);
     }
 
     @Bean
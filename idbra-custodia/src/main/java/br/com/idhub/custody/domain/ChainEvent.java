@@ -0,0 +1,91 @@
+package br.com.idhub.custody.domain;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Log do IDBraDIDRegistry já decodificado, como veio do bloco. É a fonte das tabelas
+ * onchain_credentials e onchain_identities, que são refeitas a partir daqui em um reorg.
+ */
+@Entity
+@Table(name = "chain_events",
+       uniqueConstraints = {
+           @UniqueConstraint(columnNames = {"txHash", "logIndex"})
+       },
+       indexes = {
+           @Index(name = "idx_chain_events_block", columnList = "blockNumber"),
+           @Index(name = "idx_chain_events_key", columnList = "eventKey, blockNumber, logIndex")
+       })
+public class ChainEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long blockNumber;
+
+    @Column(nullable = false)
+    private String blockHash;
+
+    @Column(nullable = false)
+    private String txHash;
+
+    @Column(nullable = false)
+    private Integer logIndex;
+
+    @Column(nullable = false)
+    private String eventName; // CredentialIssued, CredentialRevoked, KYCStatusChanged, ...
+
+    @Column(nullable = false)
+    private String eventKey; // credentialId (bytes32) ou endereço da identidade
+
+    private String actor; // emissor, revogador, criador ou verificador
+
+    private String subject; // titular da credencial
+
+    @Column(columnDefinition = "TEXT")
+    private String payload; // Demais campos do evento em JSON
+
+    @Column(nullable = false)
+    private LocalDateTime indexedAt;
+
+    // Construtores
+    public ChainEvent() {
+        this.indexedAt = LocalDateTime.now();
+    }
+
+    // Getters e Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getBlockNumber() { return blockNumber; }
+    public void setBlockNumber(Long blockNumber) { this.blockNumber = blockNumber; }
+
+    public String getBlockHash() { return blockHash; }
+    public void setBlockHash(String blockHash) { this.blockHash = blockHash; }
+
+    public String getTxHash() { return txHash; }
+    public void setTxHash(String txHash) { this.txHash = txHash; }
+
+    public Integer getLogIndex() { return logIndex; }
+    public void setLogIndex(Integer logIndex) { this.logIndex = logIndex; }
+
+    public String getEventName() { return eventName; }
+    public void setEventName(String eventName) { this.eventName = eventName; }
+
+    public String getEventKey() { return eventKey; }
+    public void setEventKey(String eventKey) { this.eventKey = eventKey; }
+
+    public String getActor() { return actor; }
+    public void setActor(String actor) { this.actor = actor; }
+
+    public String getSubject() { return subject; }
+    public void setSubject(String subject) { this.subject = subject; }
+
+    public String getPayload() { return payload; }
+    public void setPayload(String payload) { this.payload = payload; }
+
+    public LocalDateTime getIndexedAt() { return indexedAt; }
+    public void setIndexedAt(LocalDateTime indexedAt) { this.indexedAt = indexedAt; }
+}
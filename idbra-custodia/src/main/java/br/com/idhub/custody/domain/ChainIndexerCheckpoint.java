@@ -0,0 +1,48 @@
+package br.com.idhub.custody.domain;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Último bloco processado pelo indexador de eventos, com o hash usado para detectar reorgs.
+ */
+@Entity
+@Table(name = "chain_indexer_checkpoints")
+public class ChainIndexerCheckpoint {
+
+    @Id
+    private String name; // Contrato indexado (ex.: did-registry)
+
+    @Column(nullable = false)
+    private Long blockNumber;
+
+    private String blockHash;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    // Construtores
+    public ChainIndexerCheckpoint() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public ChainIndexerCheckpoint(String name, Long blockNumber, String blockHash) {
+        this();
+        this.name = name;
+        this.blockNumber = blockNumber;
+        this.blockHash = blockHash;
+    }
+
+    // Getters e Setters
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public Long getBlockNumber() { return blockNumber; }
+    public void setBlockNumber(Long blockNumber) { this.blockNumber = blockNumber; }
+
+    public String getBlockHash() { return blockHash; }
+    public void setBlockHash(String blockHash) { this.blockHash = blockHash; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
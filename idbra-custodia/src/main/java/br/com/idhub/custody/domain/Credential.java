@@ -1,12 +1,27 @@
 package br.com.idhub.custody.domain;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.DynamicUpdate;
+
 import java.time.LocalDateTime;
 
 @Entity
+// Só as colunas alteradas vão no UPDATE: a revogação não sobrescreve o registro on-chain concorrente
+@DynamicUpdate
 @Table(name = "credentials",
        uniqueConstraints = {
            @UniqueConstraint(columnNames = {"statusListId", "statusListIndex"})
+       },
+       indexes = {
+           // Filtro + id: atende a busca e a paginação por cursor sem ordenar
+           @Index(name = "idx_credentials_issuer_did", columnList = "issuerDid, id"),
+           @Index(name = "idx_credentials_holder_did", columnList = "holderDid, id"),
+           // existsByIssuerDidAndHolderDid: resolve as duas igualdades sem varrer as credenciais do emissor
+           @Index(name = "idx_credentials_issuer_holder", columnList = "issuerDid, holderDid"),
+           @Index(name = "idx_credentials_status", columnList = "status, id"),
+           @Index(name = "idx_credentials_status_next_attempt", columnList = "status, anchorNextAttemptAt"),
+           @Index(name = "idx_credentials_status_expires", columnList = "status, expiresAt"),
+           @Index(name = "idx_credentials_issuer_wallet", columnList = "issuerWalletAddress")
        })
 public class Credential {
 
@@ -33,7 +48,7 @@ public class Credential {
     private Integer statusListIndex;
 
     @Column(nullable = false)
-    private String status; // VALID, REVOKED, SUSPENDED
+    private String status; // PENDING_ANCHOR, VALID, FAILED, REVOKED, SUSPENDED
 
     @Column(nullable = false)
     private LocalDateTime issuedAt;
@@ -53,6 +68,29 @@ public class Credential {
     @Column
     private String issuerWalletAddress;
 
+    @Column
+    private String holderWalletAddress;
+
+    @Column
+    private String credentialHash;
+
+    // Acompanhamento do registro on-chain (emissão assíncrona)
+    @Column
+    private String anchorTxHash;
+
+    @Column
+    private Integer anchorAttempts = 0;
+
+    @Column(columnDefinition = "TEXT")
+    private String anchorError;
+
+    @Column
+    private LocalDateTime anchoredAt;
+
+    // Próxima tentativa de registro após falha (nulo: imediata)
+    @Column
+    private LocalDateTime anchorNextAttemptAt;
+
     // Construtores
     public Credential() {
         this.createdAt = LocalDateTime.now();
@@ -117,4 +155,25 @@ public class Credential {
 
     public String getIssuerWalletAddress() { return issuerWalletAddress; }
     public void setIssuerWalletAddress(String issuerWalletAddress) { this.issuerWalletAddress = issuerWalletAddress; }
+
+    public String getHolderWalletAddress() { return holderWalletAddress; }
+    public void setHolderWalletAddress(String holderWalletAddress) { this.holderWalletAddress = holderWalletAddress; }
+
+    public String getCredentialHash() { return credentialHash; }
+    public void setCredentialHash(String credentialHash) { this.credentialHash = credentialHash; }
+
+    public String getAnchorTxHash() { return anchorTxHash; }
+    public void setAnchorTxHash(String anchorTxHash) { this.anchorTxHash = anchorTxHash; }
+
+    public Integer getAnchorAttempts() { return anchorAttempts; }
+    public void setAnchorAttempts(Integer anchorAttempts) { this.anchorAttempts = anchorAttempts; }
+
+    public String getAnchorError() { return anchorError; }
+    public void setAnchorError(String anchorError) { this.anchorError = anchorError; }
+
+    public LocalDateTime getAnchoredAt() { return anchoredAt; }
+    public void setAnchoredAt(LocalDateTime anchoredAt) { this.anchoredAt = anchoredAt; }
+
+    public LocalDateTime getAnchorNextAttemptAt() { return anchorNextAttemptAt; }
+    public void setAnchorNextAttemptAt(LocalDateTime anchorNextAttemptAt) { this.anchorNextAttemptAt = anchorNextAttemptAt; }
 }
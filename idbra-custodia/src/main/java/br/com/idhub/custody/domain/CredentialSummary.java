@@ -0,0 +1,23 @@
+package br.com.idhub.custody.domain;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projeção de Credential para listagens, sem as colunas TEXT (credentialData, jwsToken, anchorError)
+ */
+public record CredentialSummary(
+    Long id,
+    String credentialId,
+    String issuerDid,
+    String holderDid,
+    String statusListId,
+    Integer statusListIndex,
+    String status,
+    LocalDateTime issuedAt,
+    LocalDateTime expiresAt,
+    String issuerWalletAddress,
+    String holderWalletAddress,
+    String credentialHash,
+    String anchorTxHash,
+    LocalDateTime anchoredAt
+) {}
@@ -0,0 +1,89 @@
+package br.com.idhub.custody.domain;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Estado de uma credencial no IDBraDIDRegistry, reconstruído dos eventos
+ * CredentialIssued / CredentialRevoked / CredentialRestored.
+ */
+@Entity
+@Table(name = "onchain_credentials",
+       indexes = {
+           @Index(name = "idx_onchain_credentials_subject", columnList = "subject"),
+           @Index(name = "idx_onchain_credentials_issuer", columnList = "issuer"),
+           @Index(name = "idx_onchain_credentials_revoked", columnList = "revoked")
+       })
+public class OnChainCredential {
+
+    @Id
+    private String credentialId; // keccak256 do credentialId da custódia (bytes32, minúsculo)
+
+    private String issuer;
+
+    private String subject;
+
+    private String credentialHash;
+
+    @Column(nullable = false)
+    private boolean revoked;
+
+    private String revoker; // Último a alterar o registro (emissor, revogador ou restaurador)
+
+    @Column(columnDefinition = "TEXT")
+    private String reason;
+
+    private Long statusTimestamp; // block.timestamp da última alteração
+
+    private Long issuedBlock;
+
+    @Column(nullable = false)
+    private Long updatedBlock;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    // Construtores
+    public OnChainCredential() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public OnChainCredential(String credentialId) {
+        this();
+        this.credentialId = credentialId;
+    }
+
+    // Getters e Setters
+    public String getCredentialId() { return credentialId; }
+    public void setCredentialId(String credentialId) { this.credentialId = credentialId; }
+
+    public String getIssuer() { return issuer; }
+    public void setIssuer(String issuer) { this.issuer = issuer; }
+
+    public String getSubject() { return subject; }
+    public void setSubject(String subject) { this.subject = subject; }
+
+    public String getCredentialHash() { return credentialHash; }
+    public void setCredentialHash(String credentialHash) { this.credentialHash = credentialHash; }
+
+    public boolean isRevoked() { return revoked; }
+    public void setRevoked(boolean revoked) { this.revoked = revoked; }
+
+    public String getRevoker() { return revoker; }
+    public void setRevoker(String revoker) { this.revoker = revoker; }
+
+    public String getReason() { return reason; }
+    public void setReason(String reason) { this.reason = reason; }
+
+    public Long getStatusTimestamp() { return statusTimestamp; }
+    public void setStatusTimestamp(Long statusTimestamp) { this.statusTimestamp = statusTimestamp; }
+
+    public Long getIssuedBlock() { return issuedBlock; }
+    public void setIssuedBlock(Long issuedBlock) { this.issuedBlock = issuedBlock; }
+
+    public Long getUpdatedBlock() { return updatedBlock; }
+    public void setUpdatedBlock(Long updatedBlock) { this.updatedBlock = updatedBlock; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -0,0 +1,71 @@
+package br.com.idhub.custody.domain;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Estado de uma identidade no IDBraDIDRegistry, reconstruído dos eventos DIDCreated e KYCStatusChanged.
+ */
+@Entity
+@Table(name = "onchain_identities",
+       indexes = {
+           @Index(name = "idx_onchain_identities_kyc", columnList = "kycVerified")
+       })
+public class OnChainIdentity {
+
+    @Id
+    private String identity; // Endereço da identidade (minúsculo)
+
+    @Column(nullable = false)
+    private boolean didCreated;
+
+    private String creator;
+
+    @Column(nullable = false)
+    private boolean kycVerified;
+
+    private String kycVerifier;
+
+    private Long kycTimestamp;
+
+    @Column(nullable = false)
+    private Long updatedBlock;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    // Construtores
+    public OnChainIdentity() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public OnChainIdentity(String identity) {
+        this();
+        this.identity = identity;
+    }
+
+    // Getters e Setters
+    public String getIdentity() { return identity; }
+    public void setIdentity(String identity) { this.identity = identity; }
+
+    public boolean isDidCreated() { return didCreated; }
+    public void setDidCreated(boolean didCreated) { this.didCreated = didCreated; }
+
+    public String getCreator() { return creator; }
+    public void setCreator(String creator) { this.creator = creator; }
+
+    public boolean isKycVerified() { return kycVerified; }
+    public void setKycVerified(boolean kycVerified) { this.kycVerified = kycVerified; }
+
+    public String getKycVerifier() { return kycVerifier; }
+    public void setKycVerifier(String kycVerifier) { this.kycVerifier = kycVerifier; }
+
+    public Long getKycTimestamp() { return kycTimestamp; }
+    public void setKycTimestamp(Long kycTimestamp) { this.kycTimestamp = kycTimestamp; }
+
+    public Long getUpdatedBlock() { return updatedBlock; }
+    public void setUpdatedBlock(Long updatedBlock) { this.updatedBlock = updatedBlock; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
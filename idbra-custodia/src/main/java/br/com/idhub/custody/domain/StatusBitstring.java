@@ -0,0 +1,179 @@
+package br.com.idhub.custody.domain;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Bitstring de status no formato StatusList2021: o índice 0 é o bit mais à esquerda
+ * (bit mais significativo do primeiro byte), com tamanho mínimo de 16KB (131.072 entradas).
+ * O encodedList é o bitstring comprimido com GZIP e codificado em base64url sem padding.
+ */
+public class StatusBitstring {
+
+    public static final int MIN_LENGTH_BITS = 16 * 1024 * 8;
+
+    private long[] words;
+
+    public StatusBitstring() {
+        this(MIN_LENGTH_BITS);
+    }
+
+    public StatusBitstring(int lengthBits) {
+        this.words = new long[wordsFor(roundUp(lengthBits))];
+    }
+
+    private StatusBitstring(long[] words) {
+        this.words = words;
+    }
+
+    /**
+     * Bitstring a partir do formato antigo (uma posição da lista por credencial, 1 = revogada)
+     */
+    public static StatusBitstring fromLegacy(List<Integer> statusList) {
+        StatusBitstring bitstring = new StatusBitstring(statusList.size());
+        for (int i = 0; i < statusList.size(); i++) {
+            Integer status = statusList.get(i);
+            if (status != null && status == 1) {
+                bitstring.set(i, true);
+            }
+        }
+        return bitstring;
+    }
+
+    /**
+     * Lê o bitstring de um documento de StatusList, aceitando o formato antigo
+     * (statusList como lista de inteiros)
+     */
+    public static StatusBitstring fromStatusListDocument(JsonNode root) {
+        JsonNode encodedList = root.path("credentialSubject").path("encodedList");
+        if (encodedList.isTextual()) {
+            return decode(encodedList.asText());
+        }
+
+        JsonNode legacyList = root.path("statusList");
+        if (legacyList.isArray()) {
+            List<Integer> statusList = new ArrayList<>(legacyList.size());
+            legacyList.forEach(status -> statusList.add(status.asInt()));
+            return fromLegacy(statusList);
+        }
+
+        return new StatusBitstring();
+    }
+
+    /**
+     * Decodifica um encodedList (base64url + GZIP)
+     */
+    public static StatusBitstring decode(String encodedList) {
+        byte[] compressed = Base64.getUrlDecoder().decode(encodedList);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return fromBytes(in.readAllBytes());
+        } catch (IOException e) {
+            throw new UncheckedIOException("encodedList inválido", e);
+        }
+    }
+
+    public static StatusBitstring fromBytes(byte[] bytes) {
+        long[] words = new long[wordsFor(roundUp(bytes.length * 8))];
+        for (int i = 0; i < bytes.length; i++) {
+            words[i >>> 3] |= (bytes[i] & 0xFFL) << (56 - 8 * (i & 7));
+        }
+        return new StatusBitstring(words);
+    }
+
+    /**
+     * Codifica como encodedList (GZIP + base64url sem padding)
+     */
+    public String encode() {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(toBytes());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.toByteArray());
+    }
+
+    public byte[] toBytes() {
+        byte[] bytes = new byte[words.length * 8];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (words[i >>> 3] >>> (56 - 8 * (i & 7)));
+        }
+        return bytes;
+    }
+
+    public boolean get(int index) {
+        checkIndex(index);
+        int word = index >>> 6;
+        return word < words.length && (words[word] & mask(index)) != 0;
+    }
+
+    /**
+     * Altera o bit do índice, expandindo o bitstring em blocos de 16KB quando necessário
+     */
+    public void set(int index, boolean value) {
+        checkIndex(index);
+        int word = index >>> 6;
+        if (word >= words.length) {
+            if (!value) {
+                return;
+            }
+            words = Arrays.copyOf(words, wordsFor(roundUp(index + 1)));
+        }
+        if (value) {
+            words[word] |= mask(index);
+        } else {
+            words[word] &= ~mask(index);
+        }
+    }
+
+    /**
+     * Quantidade de entradas (bits) do bitstring
+     */
+    public int length() {
+        return words.length * 64;
+    }
+
+    /**
+     * Quantidade de bits marcados (credenciais revogadas)
+     */
+    public int cardinality() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    public StatusBitstring copy() {
+        return new StatusBitstring(words.clone());
+    }
+
+    private static long mask(int index) {
+        return 1L << (63 - (index & 63));
+    }
+
+    private static void checkIndex(int index) {
+        if (index < 0) {
+            throw new IndexOutOfBoundsException("Índice negativo: " + index);
+        }
+    }
+
+    private static int roundUp(int lengthBits) {
+        int blocks = Math.max(1, (lengthBits + MIN_LENGTH_BITS - 1) / MIN_LENGTH_BITS);
+        return blocks * MIN_LENGTH_BITS;
+    }
+
+    private static int wordsFor(int lengthBits) {
+        return lengthBits / 64;
+    }
+}
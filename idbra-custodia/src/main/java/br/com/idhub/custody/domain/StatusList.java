@@ -5,7 +5,11 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "status_lists",
-       uniqueConstraints = @UniqueConstraint(columnNames = {"listId", "version"}))
+       uniqueConstraints = @UniqueConstraint(columnNames = {"listId", "version"}),
+       indexes = {
+           @Index(name = "idx_status_lists_issuer", columnList = "issuer"),
+           @Index(name = "idx_status_lists_issuer_wallet", columnList = "issuerWalletAddress")
+       })
 public class StatusList {
 
     @Id
@@ -37,7 +41,10 @@ public class StatusList {
     private LocalDateTime updatedAt;
 
     @Column(columnDefinition = "TEXT")
-    private String statusListData; // JSON da lista de status
+    private String statusListData; // JSON completo da lista; só nas versões snapshot
+
+    @Column(columnDefinition = "TEXT")
+    private String deltaIndices; // Índices alterados desde a versão anterior (ex.: "12,40,41")
 
     @Column
     private String issuerWalletAddress;
@@ -93,6 +100,11 @@ public class StatusList {
     public String getStatusListData() { return statusListData; }
     public void setStatusListData(String statusListData) { this.statusListData = statusListData; }
 
+    public String getDeltaIndices() { return deltaIndices; }
+    public void setDeltaIndices(String deltaIndices) { this.deltaIndices = deltaIndices; }
+
+    public boolean isSnapshot() { return statusListData != null; }
+
     public String getIssuerWalletAddress() { return issuerWalletAddress; }
     public void setIssuerWalletAddress(String issuerWalletAddress) { this.issuerWalletAddress = issuerWalletAddress; }
 }
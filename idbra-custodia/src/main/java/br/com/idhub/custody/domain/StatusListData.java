@@ -2,6 +2,7 @@ package br.com.idhub.custody.domain;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import java.util.List;
+import java.util.Map;
 
 public class StatusListData {
 
@@ -14,8 +15,8 @@ public class StatusListData {
     private String issued;
     private String validFrom;
     private String validUntil;
-    private String credentialSubject;
-    private List<Integer> statusList;
+    // id, type, statusPurpose e encodedList (bitstring GZIP + base64url)
+    private Map<String, Object> credentialSubject;
 
     // Construtores
     public StatusListData() {
@@ -26,12 +27,12 @@ public class StatusListData {
         this.type = "StatusList2021Credential";
     }
 
-    public StatusListData(String id, String issuer, String issued, List<Integer> statusList) {
+    public StatusListData(String id, String issuer, String issued, Map<String, Object> credentialSubject) {
         this();
         this.id = id;
         this.issuer = issuer;
         this.issued = issued;
-        this.statusList = statusList;
+        this.credentialSubject = credentialSubject;
     }
 
     // Getters e Setters
@@ -56,9 +57,6 @@ public class StatusListData {
     public String getValidUntil() { return validUntil; }
     public void setValidUntil(String validUntil) { this.validUntil = validUntil; }
 
-    public String getCredentialSubject() { return credentialSubject; }
-    public void setCredentialSubject(String credentialSubject) { this.credentialSubject = credentialSubject; }
-
-    public List<Integer> getStatusList() { return statusList; }
-    public void setStatusList(List<Integer> statusList) { this.statusList = statusList; }
+    public Map<String, Object> getCredentialSubject() { return credentialSubject; }
+    public void setCredentialSubject(Map<String, Object> credentialSubject) { this.credentialSubject = credentialSubject; }
 }
@@ -0,0 +1,50 @@
+package br.com.idhub.custody.domain;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Ponteiro para a versão mais recente de cada StatusList, atualizado na mesma transação
+ * que grava a nova versão. A leitura da versão atual vira busca por chave primária.
+ */
+@Entity
+@Table(name = "status_list_heads")
+public class StatusListHead {
+
+    @Id
+    private String listId;
+
+    @Column(nullable = false)
+    private Long version;
+
+    @Column(nullable = false)
+    private Long statusListId; // id da linha em status_lists
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    // Construtores
+    public StatusListHead() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public StatusListHead(String listId, Long version, Long statusListId) {
+        this();
+        this.listId = listId;
+        this.version = version;
+        this.statusListId = statusListId;
+    }
+
+    // Getters e Setters
+    public String getListId() { return listId; }
+    public void setListId(String listId) { this.listId = listId; }
+
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+
+    public Long getStatusListId() { return statusListId; }
+    public void setStatusListId(Long statusListId) { this.statusListId = statusListId; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
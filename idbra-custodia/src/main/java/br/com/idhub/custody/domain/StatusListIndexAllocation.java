@@ -0,0 +1,74 @@
+package br.com.idhub.custody.domain;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Linha de sequência da alocação de índices de uma StatusList. Cada instância do serviço reserva
+ * blocos de índices atualizando esta linha com lock otimista; ao encher a lista ativa, a alocação
+ * segue para uma nova lista (listId-2, listId-3, ...).
+ */
+@Entity
+@Table(name = "status_list_index_allocations")
+public class StatusListIndexAllocation {
+
+    @Id
+    private String listId; // StatusList solicitada na emissão
+
+    @Column(nullable = false)
+    private String currentListId; // StatusList que recebe os índices no momento
+
+    @Column(nullable = false)
+    private Integer segment;
+
+    @Column(nullable = false)
+    private Integer nextIndex; // Primeiro índice ainda não reservado em currentListId
+
+    @Column(nullable = false)
+    private Integer capacity;
+
+    @Version
+    private Long version;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    // Construtores
+    public StatusListIndexAllocation() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public StatusListIndexAllocation(String listId, Integer nextIndex, Integer capacity) {
+        this();
+        this.listId = listId;
+        this.currentListId = listId;
+        this.segment = 1;
+        this.nextIndex = nextIndex;
+        this.capacity = capacity;
+    }
+
+    // Getters e Setters
+    public String getListId() { return listId; }
+    public void setListId(String listId) { this.listId = listId; }
+
+    public String getCurrentListId() { return currentListId; }
+    public void setCurrentListId(String currentListId) { this.currentListId = currentListId; }
+
+    public Integer getSegment() { return segment; }
+    public void setSegment(Integer segment) { this.segment = segment; }
+
+    public Integer getNextIndex() { return nextIndex; }
+    public void setNextIndex(Integer nextIndex) {
+        this.nextIndex = nextIndex;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public Integer getCapacity() { return capacity; }
+    public void setCapacity(Integer capacity) { this.capacity = capacity; }
+
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -0,0 +1,29 @@
+package br.com.idhub.custody.domain;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projeção de StatusList para listagens, sem o JSON da lista (statusListData) nem os deltas
+ */
+public interface StatusListSummary {
+
+    Long getId();
+
+    String getListId();
+
+    String getUri();
+
+    String getHash();
+
+    Long getVersion();
+
+    String getPurpose();
+
+    String getIssuer();
+
+    String getIssuerWalletAddress();
+
+    LocalDateTime getCreatedAt();
+
+    LocalDateTime getUpdatedAt();
+}
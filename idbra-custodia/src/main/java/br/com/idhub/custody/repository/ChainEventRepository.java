@@ -0,0 +1,25 @@
+package br.com.idhub.custody.repository;
+
+import br.com.idhub.custody.domain.ChainEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ChainEventRepository extends JpaRepository<ChainEvent, Long> {
+
+    // Chaves (credencial ou identidade) afetadas a partir de um bloco, para refazer após reorg
+    @Query("SELECT DISTINCT e.eventName, e.eventKey FROM ChainEvent e WHERE e.blockNumber >= :fromBlock")
+    List<Object[]> findEventKeysFromBlock(@Param("fromBlock") Long fromBlock);
+
+    @Modifying
+    @Query("DELETE FROM ChainEvent e WHERE e.blockNumber >= :fromBlock")
+    int deleteFromBlock(@Param("fromBlock") Long fromBlock);
+
+    // Histórico de uma chave na ordem da cadeia
+    List<ChainEvent> findByEventKeyOrderByBlockNumberAscLogIndexAsc(String eventKey);
+}
@@ -0,0 +1,9 @@
+package br.com.idhub.custody.repository;
+
+import br.com.idhub.custody.domain.ChainIndexerCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ChainIndexerCheckpointRepository extends JpaRepository<ChainIndexerCheckpoint, String> {
+}
@@ -1,30 +1,79 @@
 package br.com.idhub.custody.repository;
 
 import br.com.idhub.custody.domain.Credential;
+import br.com.idhub.custody.domain.CredentialSummary;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface CredentialRepository extends JpaRepository<Credential, Long> {
 
     Optional<Credential> findByCredentialId(String credentialId);
 
+    List<Credential> findByCredentialIdIn(Collection<String> credentialIds);
+
     List<Credential> findByIssuerDid(String issuerDid);
 
     List<Credential> findByHolderDid(String holderDid);
 
     List<Credential> findByStatus(String status);
 
+    List<Credential> findByStatusOrderByIdAsc(String status, Pageable pageable);
+
+    // Fila de registro on-chain: só as pendentes cuja espera após falha já venceu
+    @Query("SELECT c FROM Credential c WHERE c.status = :status " +
+           "AND (c.anchorNextAttemptAt IS NULL OR c.anchorNextAttemptAt <= :now) ORDER BY c.id ASC")
+    List<Credential> findAnchorDue(@Param("status") String status,
+                                   @Param("now") LocalDateTime now,
+                                   Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE Credential c SET c.anchorTxHash = :txHash, c.anchorError = NULL, c.anchoredAt = :anchoredAt, " +
+           "c.anchorNextAttemptAt = NULL WHERE c.credentialId = :credentialId")
+    int recordAnchor(@Param("credentialId") String credentialId,
+                     @Param("txHash") String txHash,
+                     @Param("anchoredAt") LocalDateTime anchoredAt);
+
+    // Muda o status só se ainda estiver em expectedStatus; retorna 0 se outra escrita (ex.: revogação) chegou antes
+    @Modifying
+    @Query("UPDATE Credential c SET c.status = :status, c.updatedAt = :updatedAt " +
+           "WHERE c.credentialId = :credentialId AND c.status = :expectedStatus")
+    int transitionStatus(@Param("credentialId") String credentialId,
+                         @Param("expectedStatus") String expectedStatus,
+                         @Param("status") String status,
+                         @Param("updatedAt") LocalDateTime updatedAt);
+
+    // Limpa o contexto: a leitura seguinte na mesma transação vê o estado gravado
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Credential c SET c.status = :status, c.anchorAttempts = :attempts, c.anchorError = :error, " +
+           "c.anchorNextAttemptAt = :nextAttemptAt, c.updatedAt = :updatedAt " +
+           "WHERE c.credentialId = :credentialId AND c.status = :expectedStatus")
+    int recordAnchorFailure(@Param("credentialId") String credentialId,
+                            @Param("expectedStatus") String expectedStatus,
+                            @Param("status") String status,
+                            @Param("attempts") Integer attempts,
+                            @Param("error") String error,
+                            @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                            @Param("updatedAt") LocalDateTime updatedAt);
+
     List<Credential> findByStatusListId(String statusListId);
 
     Optional<Credential> findByStatusListIdAndStatusListIndex(String statusListId, Integer statusListIndex);
 
+    List<Credential> findByStatusListIdAndStatusListIndexIn(String statusListId, Collection<Integer> statusListIndexes);
+
     List<Credential> findByIssuerWalletAddress(String issuerWalletAddress);
 
     @Query("SELECT c FROM Credential c WHERE c.issuedAt >= :fromDate")
@@ -33,9 +82,34 @@ public interface CredentialRepository extends JpaRepository<Credential, Long> {
     @Query("SELECT c FROM Credential c WHERE c.expiresAt <= :expiryDate AND c.status = 'VALID'")
     List<Credential> findExpiredCredentials(@Param("expiryDate") LocalDateTime expiryDate);
 
+    // Listagem paginada por keyset (id > cursor), só com as colunas da projeção
+    List<CredentialSummary> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+
+    List<CredentialSummary> findByIssuerDidAndIdGreaterThanOrderByIdAsc(String issuerDid, Long afterId, Pageable pageable);
+
+    List<CredentialSummary> findByHolderDidAndIdGreaterThanOrderByIdAsc(String holderDid, Long afterId, Pageable pageable);
+
+    List<CredentialSummary> findByStatusAndIdGreaterThanOrderByIdAsc(String status, Long afterId, Pageable pageable);
+
+    // Variantes em Stream para NDJSON; exigem transação aberta durante a leitura
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "500"))
+    Stream<CredentialSummary> streamByIdGreaterThanOrderByIdAsc(Long afterId);
+
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "500"))
+    Stream<CredentialSummary> streamByIssuerDidAndIdGreaterThanOrderByIdAsc(String issuerDid, Long afterId);
+
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "500"))
+    Stream<CredentialSummary> streamByHolderDidAndIdGreaterThanOrderByIdAsc(String holderDid, Long afterId);
+
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "500"))
+    Stream<CredentialSummary> streamByStatusAndIdGreaterThanOrderByIdAsc(String status, Long afterId);
+
     @Query("SELECT COUNT(c) FROM Credential c WHERE c.statusListId = :statusListId")
     Long countByStatusListId(@Param("statusListId") String statusListId);
 
+    @Query("SELECT MAX(c.statusListIndex) FROM Credential c WHERE c.statusListId = :statusListId")
+    Integer findMaxStatusListIndex(@Param("statusListId") String statusListId);
+
     boolean existsByCredentialId(String credentialId);
 
     boolean existsByIssuerDidAndHolderDid(String issuerDid, String holderDid);
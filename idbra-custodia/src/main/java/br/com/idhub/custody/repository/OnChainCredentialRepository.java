@@ -0,0 +1,15 @@
+package br.com.idhub.custody.repository;
+
+import br.com.idhub.custody.domain.OnChainCredential;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface OnChainCredentialRepository extends JpaRepository<OnChainCredential, String> {
+
+    @Query("SELECT c.credentialId FROM OnChainCredential c WHERE c.revoked = true")
+    List<String> findRevokedCredentialIds();
+}
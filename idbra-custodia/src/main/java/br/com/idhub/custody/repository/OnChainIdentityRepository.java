@@ -0,0 +1,15 @@
+package br.com.idhub.custody.repository;
+
+import br.com.idhub.custody.domain.OnChainIdentity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface OnChainIdentityRepository extends JpaRepository<OnChainIdentity, String> {
+
+    @Query("SELECT i.identity FROM OnChainIdentity i WHERE i.kycVerified = true")
+    List<String> findKycVerifiedIdentities();
+}
@@ -0,0 +1,31 @@
+package br.com.idhub.custody.repository;
+
+import br.com.idhub.custody.domain.StatusListHead;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface StatusListHeadRepository extends JpaRepository<StatusListHead, String> {
+
+    // Avança o ponteiro só para uma versão mais nova; retorna 0 se não existe ou já está à frente
+    @Modifying
+    @Query("UPDATE StatusListHead h SET h.version = :version, h.statusListId = :statusListId, h.updatedAt = :updatedAt " +
+           "WHERE h.listId = :listId AND h.version < :version")
+    int advance(@Param("listId") String listId,
+                @Param("version") Long version,
+                @Param("statusListId") Long statusListId,
+                @Param("updatedAt") LocalDateTime updatedAt);
+
+    // Cria os ponteiros das listas gravadas antes desta tabela existir
+    @Modifying
+    @Query("INSERT INTO StatusListHead (listId, version, statusListId, updatedAt) " +
+           "SELECT sl.listId, sl.version, sl.id, CURRENT_TIMESTAMP FROM StatusList sl " +
+           "WHERE sl.version = (SELECT MAX(s2.version) FROM StatusList s2 WHERE s2.listId = sl.listId) " +
+           "AND NOT EXISTS (SELECT 1 FROM StatusListHead h WHERE h.listId = sl.listId)")
+    int backfillMissingHeads();
+}
@@ -0,0 +1,9 @@
+package br.com.idhub.custody.repository;
+
+import br.com.idhub.custody.domain.StatusListIndexAllocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface StatusListIndexAllocationRepository extends JpaRepository<StatusListIndexAllocation, String> {
+}
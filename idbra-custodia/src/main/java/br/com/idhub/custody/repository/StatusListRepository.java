@@ -1,6 +1,7 @@
 package br.com.idhub.custody.repository;
 
 import br.com.idhub.custody.domain.StatusList;
+import br.com.idhub.custody.domain.StatusListSummary;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -20,14 +21,56 @@ public interface StatusListRepository extends JpaRepository<StatusList, Long> {
 
     List<StatusList> findByIssuerWalletAddress(String issuerWalletAddress);
 
+    /**
+     * Versão mais recente pelo ponteiro em status_list_heads; sem ponteiro (lista anterior à
+     * tabela ou inexistente), cai na busca pelo MAX(version)
+     */
+    default Optional<StatusList> findLatestVersionByListId(String listId) {
+        Optional<StatusList> head = findHeadVersionByListId(listId);
+        return head.isPresent() ? head : scanLatestVersionByListId(listId);
+    }
+
+    default Long findLatestVersionNumber(String listId) {
+        Long version = findHeadVersionNumber(listId);
+        return version != null ? version : scanLatestVersionNumber(listId);
+    }
+
+    @Query("SELECT sl FROM StatusList sl, StatusListHead h WHERE h.listId = :listId AND sl.id = h.statusListId")
+    Optional<StatusList> findHeadVersionByListId(@Param("listId") String listId);
+
+    @Query("SELECT h.version FROM StatusListHead h WHERE h.listId = :listId")
+    Long findHeadVersionNumber(@Param("listId") String listId);
+
     @Query("SELECT sl FROM StatusList sl WHERE sl.listId = :listId AND sl.version = (SELECT MAX(sl2.version) FROM StatusList sl2 WHERE sl2.listId = :listId)")
-    Optional<StatusList> findLatestVersionByListId(@Param("listId") String listId);
+    Optional<StatusList> scanLatestVersionByListId(@Param("listId") String listId);
+
+    @Query("SELECT MAX(sl.version) FROM StatusList sl WHERE sl.listId = :listId")
+    Long scanLatestVersionNumber(@Param("listId") String listId);
 
     @Query("SELECT sl FROM StatusList sl WHERE sl.listId = :listId ORDER BY sl.version DESC")
     List<StatusList> findAllVersionsByListId(@Param("listId") String listId);
 
+    Optional<StatusList> findByListIdAndVersion(String listId, Long version);
+
+    // Snapshot (versão com JSON completo) mais recente até a versão informada
+    @Query("SELECT MAX(sl.version) FROM StatusList sl WHERE sl.listId = :listId AND sl.version <= :version AND sl.statusListData IS NOT NULL")
+    Long findSnapshotVersionAtOrBefore(@Param("listId") String listId, @Param("version") Long version);
+
+    @Query("SELECT sl FROM StatusList sl WHERE sl.listId = :listId AND sl.version > :fromVersion AND sl.version <= :toVersion ORDER BY sl.version ASC")
+    List<StatusList> findVersionsInRange(@Param("listId") String listId,
+                                         @Param("fromVersion") Long fromVersion,
+                                         @Param("toVersion") Long toVersion);
+
     boolean existsByListId(String listId);
 
+    // Listagens sem as colunas TEXT
+    List<StatusListSummary> findAllByOrderByListIdAscVersionDesc();
+
+    List<StatusListSummary> findSummariesByIssuerOrderByListIdAscVersionDesc(String issuer);
+
+    @Query("SELECT DISTINCT sl.listId FROM StatusList sl")
+    List<String> findDistinctListIds();
+
     @Query("SELECT COUNT(sl) FROM StatusList sl WHERE sl.issuer = :issuer")
     Long countByIssuer(@Param("issuer") String issuer);
 
@@ -3,6 +3,7 @@ package br.com.idhub.custody.service;
 import br.com.idhub.custody.domain.StatusList;
 import br.com.idhub.custody.domain.TransactionResult;
 import br.com.idhub.custody.domain.IdentityInfo;
+import br.com.idhub.custody.domain.OnChainCredential;
 import br.com.idhub.custody.domain.RevocationRecord;
 import br.com.idhub.custody.domain.SystemMetrics;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,13 +15,20 @@ import org.web3j.protocol.Web3j;
 import org.web3j.protocol.core.DefaultBlockParameterName;
 import org.web3j.protocol.core.methods.request.Transaction;
 import org.web3j.protocol.core.methods.response.EthCall;
-import org.web3j.protocol.core.methods.response.EthGetTransactionCount;
 import org.web3j.protocol.core.methods.response.TransactionReceipt;
 import org.web3j.utils.Numeric;
 
+import java.io.IOException;
 import java.math.BigInteger;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.ExecutionException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.List;
 
 @Service
@@ -35,6 +43,18 @@ public class BlockchainService {
     @Autowired
     private ContractService contractService;
 
+    @Autowired
+    private NonceManager nonceManager;
+
+    @Autowired
+    private ReceiptPoller receiptPoller;
+
+    @Autowired
+    private ChainReadCache readCache;
+
+    @Autowired
+    private ChainEventIndexer eventIndexer;
+
     @Value("${blockchain.did-registry-address:0x34c2AcC42882C0279A64bB1a4B1083D483BdE886}")
     private String didRegistryAddress;
 
@@ -42,13 +62,22 @@ public class BlockchainService {
     // @Value("${blockchain.status-list-manager-address:0x93a284C91768F3010D52cD37f84f22c5052be40b}")
     // private String statusListManagerAddress;
 
+    // Multicall3 para agregar leituras em um único eth_call; vazio desliga a agregação
+    @Value("${blockchain.multicall-address:}")
+    private String multicallAddress;
+
     @Value("${web3j.chain-id:1337}")
     private Long chainId;
 
+    // Desligado quando o endereço configurado não tem código (agregador ausente na rede)
+    private final AtomicBoolean multicallAvailable = new AtomicBoolean(true);
+
     // Gas configuration
     private final BigInteger gasPrice = BigInteger.ZERO;
     private final BigInteger gasLimit = BigInteger.valueOf(4_700_000);
 
+    private static final int MAX_NONCE_RETRIES = 3;
+
     /**
      * Publish a new status list to the blockchain
      */
@@ -147,32 +176,64 @@ public class BlockchainService {
     private CompletableFuture<TransactionReceipt> sendTransaction(
             Credentials credentials, String functionData, String contractAddress) throws Exception {
 
-        EthGetTransactionCount ethGetTransactionCount = web3j.ethGetTransactionCount(
-                credentials.getAddress(), DefaultBlockParameterName.LATEST).send();
-        BigInteger nonce = ethGetTransactionCount.getTransactionCount();
+        String sender = credentials.getAddress();
+        String txHash = null;
 
-        RawTransaction rawTransaction = RawTransaction.createTransaction(
-                nonce,
-                gasPrice,
-                gasLimit,
-                contractAddress,
-                functionData
-        );
+        for (int attempt = 0; txHash == null; attempt++) {
+            BigInteger nonce = nonceManager.acquire(sender);
+
+            org.web3j.protocol.core.methods.response.EthSendTransaction ethSendTransaction;
+            try {
+                RawTransaction rawTransaction = RawTransaction.createTransaction(
+                        nonce,
+                        gasPrice,
+                        gasLimit,
+                        contractAddress,
+                        functionData
+                );
+
+                byte[] signedMessage = org.web3j.crypto.TransactionEncoder.signMessage(rawTransaction, chainId, credentials);
+                String hexValue = Numeric.toHexString(signedMessage);
+
+                ethSendTransaction = web3j.ethSendRawTransaction(hexValue).send();
+            } catch (IOException e) {
+                // O nó pode ter aceitado a transação antes da falha (ex.: timeout de leitura): reutilizar
+                // o nonce a substituiria; o próximo acquire volta à contagem PENDING do nó
+                nonceManager.resync(sender);
+                throw e;
+            } catch (Exception e) {
+                nonceManager.release(sender, nonce);
+                throw e;
+            }
+
+            if (ethSendTransaction.hasError()) {
+                String message = ethSendTransaction.getError().getMessage();
 
-        byte[] signedMessage = org.web3j.crypto.TransactionEncoder.signMessage(rawTransaction, chainId, credentials);
-        String hexValue = Numeric.toHexString(signedMessage);
+                // Outro processo (ou reinício) usou nonces que não conhecíamos: ressincronizar e reenviar
+                if (NonceManager.isNonceTooLow(message) && attempt < MAX_NONCE_RETRIES) {
+                    System.out.println("Nonce " + nonce + " too low for " + sender + ", resyncing");
+                    nonceManager.resync(sender);
+                    continue;
+                }
 
-        org.web3j.protocol.core.methods.response.EthSendTransaction ethSendTransaction =
-                web3j.ethSendRawTransaction(hexValue).send();
+                nonceManager.release(sender, nonce);
+                throw new RuntimeException("Transaction failed: " + message);
+            }
 
-        if (ethSendTransaction.hasError()) {
-            throw new RuntimeException("Transaction failed: " + ethSendTransaction.getError().getMessage());
+            txHash = ethSendTransaction.getTransactionHash();
         }
 
-        String txHash = ethSendTransaction.getTransactionHash();
         System.out.println("Transaction sent with hash: " + txHash);
 
-        return waitForTransactionReceipt(txHash, 30, 2000);
+        // Leituras do contrato anteriores ao bloco da transação deixam de valer no cache
+        return receiptPoller.register(txHash).thenApply(receipt -> {
+            if (receipt.getBlockNumber() != null) {
+                readCache.invalidate(contractAddress, receipt.getBlockNumber().longValue());
+                // Respostas locais do indexador só voltam depois de processar este bloco
+                eventIndexer.noteBlock(receipt.getBlockNumber().longValue());
+            }
+            return receipt;
+        });
     }
 
     /**
@@ -214,36 +275,6 @@ public class BlockchainService {
         return grantIssuerRoleForContract(targetWalletAddress, didRegistryAddress);
     }
 
-    /**
-     * Wait for transaction receipt
-     */
-    private CompletableFuture<TransactionReceipt> waitForTransactionReceipt(String txHash, int maxAttempts, long intervalMs) {
-        return CompletableFuture.supplyAsync(() -> {
-            for (int i = 0; i < maxAttempts; i++) {
-                try {
-                    Thread.sleep(intervalMs);
-
-                    Optional<TransactionReceipt> receipt = web3j.ethGetTransactionReceipt(txHash)
-                            .send()
-                            .getTransactionReceipt();
-
-                    if (receipt.isPresent()) {
-                        TransactionReceipt txReceipt = receipt.get();
-                        System.out.println("Transaction confirmed: " + txHash);
-                        System.out.println("Gas used: " + txReceipt.getGasUsed());
-                        System.out.println("Status: " + txReceipt.getStatus());
-                        return txReceipt;
-                    }
-
-                } catch (Exception e) {
-                    System.out.println("Error waiting for receipt (attempt " + (i + 1) + "): " + e.getMessage());
-                }
-            }
-
-            throw new RuntimeException("Transaction receipt not received after " + maxAttempts + " attempts");
-        });
-    }
-
     /**
      * Get status list manager address
      */
@@ -318,27 +349,14 @@ public class BlockchainService {
      * Check if DID exists
      */
     public boolean didExists(String identity) {
-        try {
-            String functionData = contractService.didExistsFunctionData(identity);
-
-            EthCall response = web3j.ethCall(
-                Transaction.createEthCallTransaction(null, didRegistryAddress, functionData),
-                DefaultBlockParameterName.LATEST
-            ).send();
-
-            if (response.hasError()) {
-                System.out.println("Error checking DID existence: " + response.getError().getMessage());
-                return false;
-            }
-
-            String result = response.getValue();
-            return !"0x0000000000000000000000000000000000000000000000000000000000000000".equals(result) &&
-                   result.endsWith("1");
+        return didExistsAsync(identity).join();
+    }
 
-        } catch (Exception e) {
-            System.out.println("Error checking DID existence: " + e.getMessage());
-            return false;
-        }
+    /**
+     * Check if DID exists (leitura assíncrona, agrupável em batch)
+     */
+    public CompletableFuture<Boolean> didExistsAsync(String identity) {
+        return readBool(() -> contractService.didExistsFunctionData(identity), "Error checking DID existence");
     }
 
     /**
@@ -348,10 +366,7 @@ public class BlockchainService {
         try {
             String functionData = contractService.getIdentityInfoFunctionData(identity);
 
-            EthCall response = web3j.ethCall(
-                Transaction.createEthCallTransaction(null, didRegistryAddress, functionData),
-                DefaultBlockParameterName.LATEST
-            ).send();
+            EthCall response = ethCallAsync(functionData).join();
 
             if (response.hasError()) {
                 System.out.println("Error getting identity info: " + response.getError().getMessage());
@@ -388,6 +403,22 @@ public class BlockchainService {
         return sendTransaction(credentials, functionData, didRegistryAddress);
     }
 
+    /**
+     * Issue a batch of verifiable credentials in a single transaction
+     */
+    public CompletableFuture<TransactionReceipt> issueCredentialBatch(
+            List<String> credentialIds,
+            List<String> subjects,
+            List<String> credentialHashes) throws Exception {
+
+        String functionData = contractService.issueCredentialBatchFunctionData(
+                credentialIds, subjects, credentialHashes
+        );
+
+        Credentials credentials = walletService.getAdminCredentials();
+        return sendTransaction(credentials, functionData, didRegistryAddress);
+    }
+
     /**
      * Revoke a verifiable credential
      */
@@ -460,29 +491,16 @@ public class BlockchainService {
      * Check if delegate is valid
      */
     public boolean isValidDelegate(String identity, String delegateType, String delegate) {
-        try {
-            String functionData = contractService.isValidDelegateFunctionData(
-                    identity, delegateType, delegate
-            );
-
-            EthCall response = web3j.ethCall(
-                Transaction.createEthCallTransaction(null, didRegistryAddress, functionData),
-                DefaultBlockParameterName.LATEST
-            ).send();
-
-            if (response.hasError()) {
-                System.out.println("Error checking delegate validity: " + response.getError().getMessage());
-                return false;
-            }
-
-            String result = response.getValue();
-            return !"0x0000000000000000000000000000000000000000000000000000000000000000".equals(result) &&
-                   result.endsWith("1");
+        return isValidDelegateAsync(identity, delegateType, delegate).join();
+    }
 
-        } catch (Exception e) {
-            System.out.println("Error checking delegate validity: " + e.getMessage());
-            return false;
-        }
+    /**
+     * Check if delegate is valid (leitura assíncrona, agrupável em batch)
+     */
+    public CompletableFuture<Boolean> isValidDelegateAsync(String identity, String delegateType, String delegate) {
+        // validDelegate compara com block.timestamp: o resultado muda sem nenhum log no contrato
+        return readBool(() -> contractService.isValidDelegateFunctionData(identity, delegateType, delegate),
+                "Error checking delegate validity", this::ethCallLatestAsync);
     }
 
     // ===== SYSTEM METRICS FUNCTIONS =====
@@ -491,123 +509,144 @@ public class BlockchainService {
      * Check if credential is revoked
      */
     public boolean isCredentialRevoked(String credentialId) {
-        try {
-            String functionData = contractService.isCredentialRevokedFunctionData(credentialId);
-
-            EthCall response = web3j.ethCall(
-                Transaction.createEthCallTransaction(null, didRegistryAddress, functionData),
-                DefaultBlockParameterName.LATEST
-            ).send();
-
-            if (response.hasError()) {
-                System.out.println("Error checking credential revocation: " + response.getError().getMessage());
-                return false;
-            }
-
-            String result = response.getValue();
-            return !"0x0000000000000000000000000000000000000000000000000000000000000000".equals(result) &&
-                   result.endsWith("1");
+        return isCredentialRevokedAsync(credentialId).join();
+    }
 
-        } catch (Exception e) {
-            System.out.println("Error checking credential revocation: " + e.getMessage());
-            return false;
+    /**
+     * Check if credential is revoked (leitura assíncrona, agrupável em batch)
+     */
+    public CompletableFuture<Boolean> isCredentialRevokedAsync(String credentialId) {
+        if (eventIndexer.isCaughtUp()) {
+            return CompletableFuture.completedFuture(eventIndexer.isCredentialRevoked(credentialId));
         }
+        return readBool(() -> contractService.isCredentialRevokedFunctionData(credentialId),
+                "Error checking credential revocation");
     }
 
     /**
      * Get credential revocation record
      */
     public Optional<RevocationRecord> getCredentialRevocation(String credentialId) {
+        return getCredentialRevocationAsync(credentialId).join();
+    }
+
+    /**
+     * Get credential revocation record (leitura assíncrona, agrupável em batch)
+     */
+    public CompletableFuture<Optional<RevocationRecord>> getCredentialRevocationAsync(String credentialId) {
+        if (eventIndexer.isCaughtUp()) {
+            return CompletableFuture.completedFuture(
+                eventIndexer.findCredential(credentialId).map(credential -> toRevocationRecord(credentialId, credential)));
+        }
+
+        String functionData;
         try {
-            String functionData = contractService.getCredentialRevocationFunctionData(credentialId);
+            functionData = contractService.getCredentialRevocationFunctionData(credentialId);
+        } catch (Exception e) {
+            System.out.println("Error getting credential revocation: " + e.getMessage());
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
 
-            EthCall response = web3j.ethCall(
-                Transaction.createEthCallTransaction(null, didRegistryAddress, functionData),
-                DefaultBlockParameterName.LATEST
-            ).send();
+        return ethCallAsync(functionData)
+                .thenApply(response -> {
+                    if (response.hasError()) {
+                        System.out.println("Error getting credential revocation: " + response.getError().getMessage());
+                        return Optional.<RevocationRecord>empty();
+                    }
+                    return decodeRevocationRecord(credentialId, response.getValue());
+                })
+                .exceptionally(e -> {
+                    System.out.println("Error getting credential revocation: " + rootMessage(e));
+                    return Optional.empty();
+                });
+    }
 
-            if (response.hasError()) {
-                System.out.println("Error getting credential revocation: " + response.getError().getMessage());
-                return Optional.empty();
-            }
+    /**
+     * Registro de revogação a partir do estado indexado dos eventos (mesmos campos do contrato)
+     */
+    private static RevocationRecord toRevocationRecord(String credentialId, OnChainCredential credential) {
+        RevocationRecord record = new RevocationRecord();
+        record.setCredentialId(credentialId);
+        record.setRevoked(credential.isRevoked());
+        record.setRevoker(credential.getRevoker());
+        record.setRevokedAt(credential.getStatusTimestamp() != null
+            ? BigInteger.valueOf(credential.getStatusTimestamp()) : BigInteger.ZERO);
+        record.setReason(credential.getReason());
+        return record;
+    }
 
-            String result = response.getValue();
-            // Check if result is empty (all zeros)
-            if ("0x0000000000000000000000000000000000000000000000000000000000000000".equals(result) ||
-                result.length() <= 66) {
-                return Optional.empty();
-            }
+    private Optional<RevocationRecord> decodeRevocationRecord(String credentialId, String result) {
+        // Check if result is empty (all zeros)
+        if (result == null || "0x0000000000000000000000000000000000000000000000000000000000000000".equals(result) ||
+            result.length() <= 66) {
+            return Optional.empty();
+        }
 
-            // Decode the tuple response
-            try {
-                // Remove 0x prefix
-                String hexData = result.substring(2);
-
-                // Parse the tuple structure
-                // First 32 bytes (64 hex chars) - offset to tuple data
-                // Next 32 bytes - bool revoked (1 byte, padded to 32)
-                // Next 32 bytes - uint256 timestamp
-                // Next 32 bytes - address revoker (20 bytes, padded to 32)
-                // Next 32 bytes - offset to string reason
-                // Next 32 bytes - bytes32 credentialHash
-                // Then the actual string data
-
-                // Skip the first offset (64 chars)
-                String dataSection = hexData.substring(64);
-
-                // Parse revoked (bool) - next 64 chars, take last 2
-                boolean revoked = !dataSection.substring(62, 64).equals("00");
-
-                // Parse timestamp (uint256) - next 64 chars
-                String timestampHex = dataSection.substring(64, 128);
-                BigInteger timestamp = new BigInteger(timestampHex, 16);
-
-                // Parse revoker address - next 64 chars, take last 40
-                String revokerHex = dataSection.substring(128 + 24, 192);
-                String revoker = "0x" + revokerHex;
-
-                // Parse reason string offset - next 64 chars
-                String reasonOffsetHex = dataSection.substring(192, 256);
-                int reasonOffset = new BigInteger(reasonOffsetHex, 16).intValue();
-
-                // Parse credentialHash - next 64 chars
-                String credentialHashHex = dataSection.substring(256, 320);
-
-                // Parse reason string
-                String reason = "";
-                if (reasonOffset > 0) {
-                    // Reason starts at offset * 2 (hex chars)
-                    int reasonStart = reasonOffset * 2;
-                    if (reasonStart < hexData.length()) {
-                        // First 32 bytes at reason location is the length
-                        String reasonLengthHex = hexData.substring(reasonStart, reasonStart + 64);
-                        int reasonLength = new BigInteger(reasonLengthHex, 16).intValue();
-
-                        if (reasonLength > 0 && reasonStart + 64 + (reasonLength * 2) <= hexData.length()) {
-                            String reasonHex = hexData.substring(reasonStart + 64, reasonStart + 64 + (reasonLength * 2));
-                            reason = new String(Numeric.hexStringToByteArray(reasonHex));
-                        }
+        // Decode the tuple response
+        try {
+            // Remove 0x prefix
+            String hexData = result.substring(2);
+
+            // Parse the tuple structure
+            // First 32 bytes (64 hex chars) - offset to tuple data
+            // Next 32 bytes - bool revoked (1 byte, padded to 32)
+            // Next 32 bytes - uint256 timestamp
+            // Next 32 bytes - address revoker (20 bytes, padded to 32)
+            // Next 32 bytes - offset to string reason
+            // Next 32 bytes - bytes32 credentialHash
+            // Then the actual string data
+
+            // Skip the first offset (64 chars)
+            String dataSection = hexData.substring(64);
+
+            // Parse revoked (bool) - next 64 chars, take last 2
+            boolean revoked = !dataSection.substring(62, 64).equals("00");
+
+            // Parse timestamp (uint256) - next 64 chars
+            String timestampHex = dataSection.substring(64, 128);
+            BigInteger timestamp = new BigInteger(timestampHex, 16);
+
+            // Parse revoker address - next 64 chars, take last 40
+            String revokerHex = dataSection.substring(128 + 24, 192);
+            String revoker = "0x" + revokerHex;
+
+            // Parse reason string offset - next 64 chars
+            String reasonOffsetHex = dataSection.substring(192, 256);
+            int reasonOffset = new BigInteger(reasonOffsetHex, 16).intValue();
+
+            // Parse credentialHash - next 64 chars
+            String credentialHashHex = dataSection.substring(256, 320);
+
+            // Parse reason string
+            String reason = "";
+            if (reasonOffset > 0) {
+                // Reason starts at offset * 2 (hex chars)
+                int reasonStart = reasonOffset * 2;
+                if (reasonStart < hexData.length()) {
+                    // First 32 bytes at reason location is the length
+                    String reasonLengthHex = hexData.substring(reasonStart, reasonStart + 64);
+                    int reasonLength = new BigInteger(reasonLengthHex, 16).intValue();
+
+                    if (reasonLength > 0 && reasonStart + 64 + (reasonLength * 2) <= hexData.length()) {
+                        String reasonHex = hexData.substring(reasonStart + 64, reasonStart + 64 + (reasonLength * 2));
+                        reason = new String(Numeric.hexStringToByteArray(reasonHex));
                     }
                 }
+            }
 
-                // Create RevocationRecord with decoded data
-                RevocationRecord record = new RevocationRecord();
-                record.setCredentialId(credentialId);
-                record.setRevoked(revoked);
-                record.setRevoker(revoker);
-                record.setRevokedAt(timestamp);
-                record.setReason(reason);
-
-                return Optional.of(record);
+            // Create RevocationRecord with decoded data
+            RevocationRecord record = new RevocationRecord();
+            record.setCredentialId(credentialId);
+            record.setRevoked(revoked);
+            record.setRevoker(revoker);
+            record.setRevokedAt(timestamp);
+            record.setReason(reason);
 
-            } catch (Exception decodeError) {
-                System.out.println("Error decoding revocation data: " + decodeError.getMessage());
-                decodeError.printStackTrace();
-                return Optional.empty();
-            }
+            return Optional.of(record);
 
-        } catch (Exception e) {
-            System.out.println("Error getting credential revocation: " + e.getMessage());
+        } catch (Exception decodeError) {
+            System.out.println("Error decoding revocation data: " + decodeError.getMessage());
+            decodeError.printStackTrace();
             return Optional.empty();
         }
     }
@@ -616,27 +655,17 @@ public class BlockchainService {
      * Get KYC status for an identity
      */
     public boolean getKYCStatus(String identity) {
-        try {
-            String functionData = contractService.getKYCStatusFunctionData(identity);
-
-            EthCall response = web3j.ethCall(
-                Transaction.createEthCallTransaction(null, didRegistryAddress, functionData),
-                DefaultBlockParameterName.LATEST
-            ).send();
-
-            if (response.hasError()) {
-                System.out.println("Error getting KYC status: " + response.getError().getMessage());
-                return false;
-            }
-
-            String result = response.getValue();
-            return !"0x0000000000000000000000000000000000000000000000000000000000000000".equals(result) &&
-                   result.endsWith("1");
+        return getKYCStatusAsync(identity).join();
+    }
 
-        } catch (Exception e) {
-            System.out.println("Error getting KYC status: " + e.getMessage());
-            return false;
+    /**
+     * Get KYC status for an identity (leitura assíncrona, agrupável em batch)
+     */
+    public CompletableFuture<Boolean> getKYCStatusAsync(String identity) {
+        if (eventIndexer.isCaughtUp()) {
+            return CompletableFuture.completedFuture(eventIndexer.isKycVerified(identity));
         }
+        return readBool(() -> contractService.getKYCStatusFunctionData(identity), "Error getting KYC status");
     }
 
     /**
@@ -690,23 +719,29 @@ public class BlockchainService {
      */
     public boolean hasIssuerRole(String walletAddress) {
         try {
-            String functionData = contractService.getHasRoleFunctionData(walletAddress);
+            return hasIssuerRoleAsync(walletAddress).join();
+        } catch (CompletionException e) {
+            throw new RuntimeException("Erro ao verificar role de issuer: " + rootMessage(e), e.getCause());
+        }
+    }
 
-            EthCall response = web3j.ethCall(
-                Transaction.createEthCallTransaction(null, didRegistryAddress, functionData),
-                DefaultBlockParameterName.LATEST
-            ).send();
+    /**
+     * Check if a wallet has issuer role (leitura assíncrona, agrupável em batch)
+     */
+    public CompletableFuture<Boolean> hasIssuerRoleAsync(String walletAddress) {
+        String functionData;
+        try {
+            functionData = contractService.getHasRoleFunctionData(walletAddress);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
 
+        return ethCallAsync(functionData).thenApply(response -> {
             if (response.hasError()) {
                 throw new RuntimeException("Erro ao verificar hasRole: " + response.getError().getMessage());
             }
-
-            String result = response.getValue();
-            return !result.equals("0x0000000000000000000000000000000000000000000000000000000000000000");
-
-        } catch (Exception e) {
-            throw new RuntimeException("Erro ao verificar role de issuer: " + e.getMessage(), e);
-        }
+            return !response.getValue().equals("0x0000000000000000000000000000000000000000000000000000000000000000");
+        });
     }
 
     /**
@@ -765,5 +800,234 @@ public class BlockchainService {
             return false;
         }
     }
-}
 
+    /**
+     * Leituras usadas na verificação de uma credencial (revogação, registro, role do emissor
+     * e KYC do titular) em um único eth_call via Multicall3
+     */
+    public CompletableFuture<CredentialChainStatus> getCredentialChainStatusAsync(
+            String credentialId, String issuerWalletAddress, String holderAddress) {
+        if (eventIndexer.isCaughtUp()) {
+            // Revogação e KYC do índice local; só a role do emissor vai ao nó (ou ao cache por bloco)
+            return hasIssuerRoleAsync(issuerWalletAddress).thenApply(issuerHasRole -> new CredentialChainStatus(
+                eventIndexer.isCredentialRevoked(credentialId),
+                eventIndexer.findCredential(credentialId).map(credential -> toRevocationRecord(credentialId, credential)),
+                issuerHasRole,
+                eventIndexer.isKycVerified(holderAddress)
+            ));
+        }
+
+        List<String> functionData;
+        try {
+            functionData = List.of(
+                contractService.isCredentialRevokedFunctionData(credentialId),
+                contractService.getCredentialRevocationFunctionData(credentialId),
+                contractService.getHasRoleFunctionData(issuerWalletAddress),
+                contractService.getKYCStatusFunctionData(holderAddress)
+            );
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        return readAllAsync(functionData).thenApply(results -> new CredentialChainStatus(
+            decodeBool(results.get(0)),
+            results.get(1) != null ? decodeRevocationRecord(credentialId, results.get(1)) : Optional.empty(),
+            results.get(2) != null && !isZeroWord(results.get(2)),
+            decodeBool(results.get(3))
+        ));
+    }
+
+    public record CredentialChainStatus(boolean revoked, Optional<RevocationRecord> revocationRecord,
+                                        boolean issuerHasRole, boolean holderKycVerified) {}
+
+    /**
+     * Executa várias leituras no registry em um único eth_call via Multicall3 (aggregate3).
+     * Cada posição do resultado traz o retorno da chamada correspondente, ou null se ela falhou.
+     * Sem agregador configurado ou disponível, as leituras seguem como eth_calls individuais.
+     */
+    public CompletableFuture<List<String>> readAllAsync(List<String> functionData) {
+        if (functionData.isEmpty()) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+
+        // Leituras ainda válidas no cache por bloco não entram no agregado
+        ChainReadCache.Tag tag = readCache.currentTag(didRegistryAddress);
+        List<String> results = new ArrayList<>(functionData.size());
+        List<Integer> missing = new ArrayList<>();
+        for (int i = 0; i < functionData.size(); i++) {
+            String cached = tag != null ? readCache.getFresh(didRegistryAddress, functionData.get(i)) : null;
+            results.add(cached);
+            if (cached == null) {
+                missing.add(i);
+            }
+        }
+        if (missing.isEmpty()) {
+            return CompletableFuture.completedFuture(results);
+        }
+
+        List<String> missingData = missing.stream().map(functionData::get).toList();
+        return aggregateAsync(missingData, tag).thenApply(values -> {
+            for (int j = 0; j < missing.size(); j++) {
+                results.set(missing.get(j), values.get(j));
+                readCache.put(didRegistryAddress, missingData.get(j), values.get(j), tag);
+            }
+            return results;
+        });
+    }
+
+    private CompletableFuture<List<String>> aggregateAsync(List<String> functionData, ChainReadCache.Tag tag) {
+        if (multicallAddress == null || multicallAddress.isBlank() || !multicallAvailable.get()) {
+            return readEachAsync(functionData);
+        }
+
+        String aggregateData = contractService.aggregate3FunctionData(didRegistryAddress, functionData);
+        return web3j.ethCall(
+                Transaction.createEthCallTransaction(null, multicallAddress, aggregateData),
+                ChainReadCache.blockParameter(tag)
+            ).sendAsync()
+            .handle((response, error) -> {
+                if (error != null) {
+                    System.out.println("Erro no Multicall3, seguindo com leituras individuais: " + rootMessage(error));
+                    return null;
+                }
+                if (response.hasError()) {
+                    System.out.println("Erro no Multicall3, seguindo com leituras individuais: " +
+                                       response.getError().getMessage());
+                    return null;
+                }
+                String value = response.getValue();
+                if (value == null || "0x".equals(value)) {
+                    // eth_call em endereço sem código devolve vazio: agregador não implantado nesta rede
+                    if (multicallAvailable.compareAndSet(true, false)) {
+                        System.out.println("Multicall3 ausente em " + multicallAddress + ", usando leituras individuais");
+                    }
+                    return null;
+                }
+                try {
+                    List<String> results = decodeAggregate3(value);
+                    return results.size() == functionData.size() ? results : null;
+                } catch (Exception e) {
+                    System.out.println("Resposta inválida do Multicall3: " + e.getMessage());
+                    return null;
+                }
+            })
+            .thenCompose(results -> results != null
+                ? CompletableFuture.completedFuture(results)
+                : readEachAsync(functionData));
+    }
+
+    /**
+     * Uma leitura por função; o transporte em batch ainda junta as chamadas na mesma requisição HTTP
+     */
+    private CompletableFuture<List<String>> readEachAsync(List<String> functionData) {
+        List<CompletableFuture<String>> calls = new ArrayList<>(functionData.size());
+        for (String data : functionData) {
+            calls.add(ethCallAsync(data)
+                .thenApply(response -> response.hasError() ? null : response.getValue())
+                .exceptionally(e -> null));
+        }
+        return CompletableFuture.allOf(calls.toArray(new CompletableFuture<?>[0]))
+            .thenApply(ignored -> {
+                List<String> results = new ArrayList<>(calls.size());
+                calls.forEach(call -> results.add(call.join()));
+                return results;
+            });
+    }
+
+    /**
+     * Decodifica o retorno de aggregate3: (bool success, bytes returnData)[]
+     */
+    static List<String> decodeAggregate3(String result) {
+        byte[] data = Numeric.hexStringToByteArray(result);
+        int arrayStart = abiWord(data, 0);
+        int length = abiWord(data, arrayStart);
+        int base = arrayStart + 32;
+
+        List<String> results = new ArrayList<>(length);
+        for (int i = 0; i < length; i++) {
+            int tuple = base + abiWord(data, base + 32 * i);
+            boolean success = abiWord(data, tuple) != 0;
+            int bytesStart = tuple + abiWord(data, tuple + 32);
+            int size = abiWord(data, bytesStart);
+            if (bytesStart + 32 + size > data.length) {
+                throw new IllegalArgumentException("returnData fora dos limites na posição " + i);
+            }
+            results.add(success ? Numeric.toHexString(data, bytesStart + 32, size, true) : null);
+        }
+        return results;
+    }
+
+    private static int abiWord(byte[] data, int offset) {
+        if (offset < 0 || offset + 32 > data.length) {
+            throw new IllegalArgumentException("Offset ABI fora dos limites: " + offset);
+        }
+        return new BigInteger(1, Arrays.copyOfRange(data, offset, offset + 32)).intValueExact();
+    }
+
+    private static boolean isZeroWord(String result) {
+        return "0x0000000000000000000000000000000000000000000000000000000000000000".equals(result);
+    }
+
+    /**
+     * eth_call assíncrono no registry, via cache de leituras por bloco; chamadas concorrentes
+     * que chegam ao nó são agrupadas pelo transporte em batch
+     */
+    private CompletableFuture<EthCall> ethCallAsync(String functionData) {
+        return readCache.call(didRegistryAddress, functionData, block -> web3j.ethCall(
+            Transaction.createEthCallTransaction(null, didRegistryAddress, functionData),
+            block
+        ).sendAsync());
+    }
+
+    /**
+     * eth_call em LATEST sem o cache de leituras, para funções que dependem de block.timestamp
+     */
+    private CompletableFuture<EthCall> ethCallLatestAsync(String functionData) {
+        return web3j.ethCall(
+            Transaction.createEthCallTransaction(null, didRegistryAddress, functionData),
+            DefaultBlockParameterName.LATEST
+        ).sendAsync();
+    }
+
+    private CompletableFuture<Boolean> readBool(Supplier<String> functionData, String errorPrefix) {
+        return readBool(functionData, errorPrefix, this::ethCallAsync);
+    }
+
+    private CompletableFuture<Boolean> readBool(Supplier<String> functionData, String errorPrefix,
+                                                Function<String, CompletableFuture<EthCall>> ethCall) {
+        String data;
+        try {
+            data = functionData.get();
+        } catch (Exception e) {
+            System.out.println(errorPrefix + ": " + e.getMessage());
+            return CompletableFuture.completedFuture(false);
+        }
+
+        return ethCall.apply(data)
+                .thenApply(response -> {
+                    if (response.hasError()) {
+                        System.out.println(errorPrefix + ": " + response.getError().getMessage());
+                        return false;
+                    }
+                    return decodeBool(response.getValue());
+                })
+                .exceptionally(e -> {
+                    System.out.println(errorPrefix + ": " + rootMessage(e));
+                    return false;
+                });
+    }
+
+    private static boolean decodeBool(String result) {
+        return result != null &&
+               !"0x0000000000000000000000000000000000000000000000000000000000000000".equals(result) &&
+               result.endsWith("1");
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable cause = e;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause.getMessage();
+    }
+}
@@ -0,0 +1,750 @@
+package br.com.idhub.custody.service;
+
+import br.com.idhub.custody.domain.ChainEvent;
+import br.com.idhub.custody.domain.ChainIndexerCheckpoint;
+import br.com.idhub.custody.domain.OnChainCredential;
+import br.com.idhub.custody.domain.OnChainIdentity;
+import br.com.idhub.custody.repository.ChainEventRepository;
+import br.com.idhub.custody.repository.ChainIndexerCheckpointRepository;
+import br.com.idhub.custody.repository.OnChainCredentialRepository;
+import br.com.idhub.custody.repository.OnChainIdentityRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.web3j.abi.EventEncoder;
+import org.web3j.abi.EventValues;
+import org.web3j.abi.TypeReference;
+import org.web3j.abi.datatypes.Address;
+import org.web3j.abi.datatypes.Bool;
+import org.web3j.abi.datatypes.DynamicBytes;
+import org.web3j.abi.datatypes.Event;
+import org.web3j.abi.datatypes.Type;
+import org.web3j.abi.datatypes.Utf8String;
+import org.web3j.abi.datatypes.generated.Bytes32;
+import org.web3j.abi.datatypes.generated.Uint256;
+import org.web3j.crypto.Hash;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameter;
+import org.web3j.protocol.core.methods.request.EthFilter;
+import org.web3j.protocol.core.methods.response.EthBlock;
+import org.web3j.protocol.core.methods.response.EthLog;
+import org.web3j.protocol.core.methods.response.Log;
+import org.web3j.tx.Contract;
+import org.web3j.utils.Numeric;
+
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Indexador dos eventos do IDBraDIDRegistry: lê eth_getLogs em faixas de blocos de tamanho
+ * adaptativo, grava os logs decodificados em chain_events e mantém as tabelas onchain_credentials
+ * e onchain_identities, com checkpoint do último bloco na mesma transação.
+ * Se o hash do bloco do checkpoint muda (reorg), desfaz os últimos N blocos e reprocessa.
+ * Com o índice em dia, revogação e KYC são respondidos da memória, sem eth_call.
+ */
+@Component
+public class ChainEventIndexer {
+
+    public static final Event CREDENTIAL_ISSUED = new Event("CredentialIssued", Arrays.<TypeReference<?>>asList(
+        new TypeReference<Bytes32>(true) {}, new TypeReference<Address>(true) {}, new TypeReference<Address>(true) {},
+        new TypeReference<Bytes32>() {}, new TypeReference<Uint256>() {}));
+
+    public static final Event CREDENTIAL_REVOKED = new Event("CredentialRevoked", Arrays.<TypeReference<?>>asList(
+        new TypeReference<Bytes32>(true) {}, new TypeReference<Address>(true) {}, new TypeReference<Address>(true) {},
+        new TypeReference<Utf8String>() {}, new TypeReference<Uint256>() {}));
+
+    public static final Event CREDENTIAL_RESTORED = new Event("CredentialRestored", Arrays.<TypeReference<?>>asList(
+        new TypeReference<Bytes32>(true) {}, new TypeReference<Address>(true) {}, new TypeReference<Address>(true) {},
+        new TypeReference<Utf8String>() {}, new TypeReference<Uint256>() {}));
+
+    public static final Event DID_CREATED = new Event("DIDCreated", Arrays.<TypeReference<?>>asList(
+        new TypeReference<Address>(true) {}, new TypeReference<Address>(true) {},
+        new TypeReference<Utf8String>() {}, new TypeReference<Uint256>() {}));
+
+    public static final Event KYC_STATUS_CHANGED = new Event("KYCStatusChanged", Arrays.<TypeReference<?>>asList(
+        new TypeReference<Address>(true) {}, new TypeReference<Bool>() {},
+        new TypeReference<Address>(true) {}, new TypeReference<Uint256>() {}));
+
+    public static final Event DID_ATTRIBUTE_CHANGED = new Event("DIDAttributeChanged", Arrays.<TypeReference<?>>asList(
+        new TypeReference<Address>(true) {}, new TypeReference<Bytes32>() {}, new TypeReference<DynamicBytes>() {},
+        new TypeReference<Uint256>() {}, new TypeReference<Uint256>() {}));
+
+    private static final Map<String, Event> EVENTS_BY_TOPIC = new HashMap<>();
+
+    static {
+        for (Event event : List.of(CREDENTIAL_ISSUED, CREDENTIAL_REVOKED, CREDENTIAL_RESTORED,
+                                   DID_CREATED, KYC_STATUS_CHANGED, DID_ATTRIBUTE_CHANGED)) {
+            EVENTS_BY_TOPIC.put(EventEncoder.encode(event), event);
+        }
+    }
+
+    private static final String CHECKPOINT_NAME = "did-registry";
+
+    private final Web3j web3j;
+    private final ChainHeadTracker headTracker;
+    private final ChainEventRepository eventRepository;
+    private final OnChainCredentialRepository credentialRepository;
+    private final OnChainIdentityRepository identityRepository;
+    private final ChainIndexerCheckpointRepository checkpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Value("${blockchain.did-registry-address:0x34c2AcC42882C0279A64bB1a4B1083D483BdE886}")
+    private String didRegistryAddress;
+
+    @Value("${blockchain.indexer.enabled:true}")
+    private boolean enabled;
+
+    // Bloco do deploy do registry; as respostas locais só são completas a partir dele
+    @Value("${blockchain.indexer.start-block:0}")
+    private long startBlock;
+
+    @Value("${blockchain.indexer.poll-interval-ms:5000}")
+    private long pollIntervalMs;
+
+    @Value("${blockchain.indexer.initial-range:500}")
+    private int initialRange;
+
+    @Value("${blockchain.indexer.max-range:10000}")
+    private int maxRange;
+
+    // Faixas que retornam menos logs que isso dobram de tamanho na próxima leitura
+    @Value("${blockchain.indexer.target-logs-per-range:2000}")
+    private int targetLogsPerRange;
+
+    @Value("${blockchain.indexer.reorg-depth:12}")
+    private int reorgDepth;
+
+    @Value("${blockchain.indexer.confirmations:0}")
+    private int confirmations;
+
+    // Atraso máximo (em blocos) para responder revogação e KYC localmente
+    @Value("${blockchain.indexer.max-lag-blocks:1}")
+    private int maxLagBlocks;
+
+    @Value("${blockchain.indexer.backfill.enabled:true}")
+    private boolean backfillEnabled;
+
+    // Atraso (em blocos) a partir do qual a sincronização usa o backfill paralelo
+    @Value("${blockchain.indexer.backfill.threshold-blocks:20000}")
+    private long backfillThreshold;
+
+    @Value("${blockchain.indexer.backfill.range-size:2000}")
+    private int backfillRangeSize;
+
+    @Value("${blockchain.indexer.backfill.parallelism:4}")
+    private int backfillParallelism;
+
+    private final Set<String> revokedCredentials = ConcurrentHashMap.newKeySet();
+    private final Set<String> kycVerified = ConcurrentHashMap.newKeySet();
+
+    private volatile long indexedBlock = -1;
+    private volatile String indexedBlockHash;
+    private volatile boolean ready;
+    private int range;
+
+    // Bloco mínimo exigido para respostas locais (ex.: recibo de uma transação própria)
+    private final AtomicLong minimumBlock = new AtomicLong(-1);
+    private final AtomicBoolean syncQueued = new AtomicBoolean();
+
+    private final AtomicLong indexedBlocks = new AtomicLong();
+    private final AtomicLong indexedEvents = new AtomicLong();
+    private final AtomicLong reorgs = new AtomicLong();
+
+    private ScheduledExecutorService executor;
+    private ChainLogBackfill backfill;
+
+    public ChainEventIndexer(Web3j web3j,
+                             ChainHeadTracker headTracker,
+                             ChainEventRepository eventRepository,
+                             OnChainCredentialRepository credentialRepository,
+                             OnChainIdentityRepository identityRepository,
+                             ChainIndexerCheckpointRepository checkpointRepository,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry) {
+        this.web3j = web3j;
+        this.headTracker = headTracker;
+        this.eventRepository = eventRepository;
+        this.credentialRepository = credentialRepository;
+        this.identityRepository = identityRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void start() {
+        registerMetrics();
+        if (!enabled) {
+            return;
+        }
+
+        revokedCredentials.addAll(credentialRepository.findRevokedCredentialIds());
+        kycVerified.addAll(identityRepository.findKycVerifiedIdentities());
+
+        Optional<ChainIndexerCheckpoint> checkpoint = checkpointRepository.findById(CHECKPOINT_NAME);
+        indexedBlock = checkpoint.map(ChainIndexerCheckpoint::getBlockNumber).orElse(startBlock - 1);
+        indexedBlockHash = checkpoint.map(ChainIndexerCheckpoint::getBlockHash).orElse(null);
+        range = initialRange;
+        backfill = new ChainLogBackfill(
+            (from, to) -> new ChainLogBackfill.RangeResult(from, to, requireBlockHash(to), fetchLogs(from, to)),
+            backfillRangeSize, backfillParallelism);
+        ready = true;
+
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "chain-event-indexer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::poll, 0, pollIntervalMs, TimeUnit.MILLISECONDS);
+        headTracker.addListener(head -> requestSync());
+    }
+
+    private void registerMetrics() {
+        Gauge.builder("blockchain.indexer.block", this, ChainEventIndexer::getIndexedBlock)
+                .description("Último bloco processado pelo indexador de eventos")
+                .register(meterRegistry);
+        Gauge.builder("blockchain.indexer.lag_blocks", this, ChainEventIndexer::getLagBlocks)
+                .description("Blocos entre o head da rede e o último bloco indexado")
+                .register(meterRegistry);
+        FunctionCounter.builder("blockchain.indexer.blocks", indexedBlocks, AtomicLong::get)
+                .description("Blocos processados pelo indexador")
+                .register(meterRegistry);
+        FunctionCounter.builder("blockchain.indexer.events", indexedEvents, AtomicLong::get)
+                .description("Eventos do registry gravados em chain_events")
+                .register(meterRegistry);
+        FunctionCounter.builder("blockchain.indexer.reorgs", reorgs, AtomicLong::get)
+                .description("Reorgs detectados (blocos desfeitos e reprocessados)")
+                .register(meterRegistry);
+        Gauge.builder("blockchain.indexer.backfill.progress", this, indexer -> indexer.getBackfillStatus().progress())
+                .description("Fração concluída do backfill atual ou do último")
+                .register(meterRegistry);
+        Gauge.builder("blockchain.indexer.backfill.blocks_per_second", this,
+                      indexer -> indexer.getBackfillStatus().blocksPerSecond())
+                .description("Vazão do backfill atual ou do último")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        if (backfill != null) {
+            backfill.shutdown();
+        }
+    }
+
+    /**
+     * Agenda uma sincronização imediata; pedidos enquanto uma está na fila são agrupados
+     */
+    public void requestSync() {
+        if (executor != null && syncQueued.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                syncQueued.set(false);
+                sync();
+            });
+        }
+    }
+
+    /**
+     * Verdadeiro se o índice está em dia com o head (e com o bloco mínimo exigido)
+     */
+    public boolean isCaughtUp() {
+        ChainHeadTracker.Head head = headTracker.getHead();
+        if (!enabled || !ready || head == null || !headTracker.isFresh()) {
+            return false;
+        }
+        long indexed = indexedBlock;
+        return indexed >= head.number() - confirmations - maxLagBlocks && indexed >= minimumBlock.get();
+    }
+
+    /**
+     * Exige que o índice alcance o bloco antes de voltar a responder localmente
+     */
+    public void noteBlock(long blockNumber) {
+        minimumBlock.accumulateAndGet(blockNumber, Math::max);
+        requestSync();
+    }
+
+    public boolean isCredentialRevoked(String credentialId) {
+        return revokedCredentials.contains(credentialKey(credentialId));
+    }
+
+    public boolean isKycVerified(String identity) {
+        return identity != null && kycVerified.contains(identity.toLowerCase());
+    }
+
+    public Optional<OnChainCredential> findCredential(String credentialId) {
+        return credentialRepository.findById(credentialKey(credentialId));
+    }
+
+    public long getIndexedBlock() {
+        return indexedBlock;
+    }
+
+    public long getLagBlocks() {
+        ChainHeadTracker.Head head = headTracker.getHead();
+        return head != null && indexedBlock >= 0 ? Math.max(0, head.number() - indexedBlock) : -1;
+    }
+
+    public record BackfillStatus(boolean running, long fromBlock, long toBlock, long completedBlock,
+                                 long events, double progress, double blocksPerSecond) {}
+
+    public BackfillStatus getBackfillStatus() {
+        ChainLogBackfill current = backfill;
+        if (current == null) {
+            return new BackfillStatus(false, -1, -1, -1, 0, 0, 0);
+        }
+        return new BackfillStatus(current.isRunning(), current.getFromBlock(), current.getToBlock(),
+                                  current.getCompletedBlock(), current.getLogCount(),
+                                  current.getProgress(), current.getBlocksPerSecond());
+    }
+
+    /**
+     * credentialId da custódia como gravado no contrato (keccak256, bytes32 em hex minúsculo)
+     */
+    public static String credentialKey(String credentialId) {
+        return Numeric.toHexString(Hash.sha3(credentialId.getBytes()));
+    }
+
+    private void poll() {
+        // Com heads chegando pelo WebSocket cada bloco já agenda uma sincronização
+        if (headTracker.isSubscribed() && headTracker.isFresh() && indexedBlock >= startBlock) {
+            return;
+        }
+        sync();
+    }
+
+    private void sync() {
+        try {
+            long target = latestBlock() - confirmations;
+            checkForReorg();
+
+            if (skipWithoutLogs(target)) {
+                return;
+            }
+
+            // Muito atrás do head (instância nova, histórico longo): faixas em paralelo, aplicadas em ordem
+            if (backfillEnabled && target - indexedBlock > backfillThreshold) {
+                backfill.run(indexedBlock + 1, target,
+                    result -> applyRange(result.logs(), result.to(), result.toBlockHash()));
+            }
+
+            while (indexedBlock < target && !Thread.currentThread().isInterrupted()) {
+                long from = indexedBlock + 1;
+                long to = Math.min(target, from + range - 1);
+                String toBlockHash = requireBlockHash(to);
+
+                List<Log> logs;
+                try {
+                    logs = fetchLogs(from, to);
+                } catch (Exception e) {
+                    if (range <= 1) {
+                        throw e;
+                    }
+                    // Resposta grande demais ou timeout: tentar de novo com metade da faixa
+                    range = Math.max(1, range / 2);
+                    System.out.println("Erro ao ler logs " + from + "-" + to + " (" + e.getMessage() +
+                                       "), reduzindo faixa para " + range + " blocos");
+                    continue;
+                }
+
+                applyRange(logs, to, toBlockHash);
+                if (logs.size() < targetLogsPerRange) {
+                    range = Math.min(maxRange, range * 2);
+                }
+            }
+        } catch (Throwable e) {
+            System.out.println("Erro no indexador de eventos (bloco " + indexedBlock + "): " + e.getMessage());
+        }
+    }
+
+    /**
+     * Próximo bloco é o head e estende o checkpoint: se o logsBloom exclui o registry, avança o
+     * checkpoint sem eth_getLogs (rede ociosa não gera leituras)
+     */
+    private boolean skipWithoutLogs(long target) {
+        ChainHeadTracker.Head head = headTracker.getHead();
+        if (head == null || target != indexedBlock + 1 || head.number() != target || head.logsBloom() == null ||
+            indexedBlockHash == null || !indexedBlockHash.equalsIgnoreCase(head.parentHash())) {
+            return false;
+        }
+        if (ChainReadCache.bloomContains(Numeric.hexStringToByteArray(head.logsBloom()), didRegistryAddress)) {
+            return false;
+        }
+        applyRange(List.of(), head.number(), head.hash());
+        return true;
+    }
+
+    private long latestBlock() throws Exception {
+        ChainHeadTracker.Head head = headTracker.getHead();
+        if (head != null && headTracker.isFresh()) {
+            return head.number();
+        }
+        return web3j.ethBlockNumber().send().getBlockNumber().longValue();
+    }
+
+    /**
+     * Compara o hash do bloco do checkpoint com o da rede; se divergir, desfaz os últimos reorg-depth blocos
+     */
+    private void checkForReorg() throws Exception {
+        if (indexedBlockHash == null || indexedBlock < startBlock) {
+            return;
+        }
+
+        // Caso comum: o head atual é filho direto do checkpoint, sem consulta extra
+        ChainHeadTracker.Head head = headTracker.getHead();
+        if (head != null && head.number() == indexedBlock + 1 && indexedBlockHash.equalsIgnoreCase(head.parentHash())) {
+            return;
+        }
+
+        String canonicalHash = blockHash(indexedBlock);
+        if (canonicalHash == null || canonicalHash.equalsIgnoreCase(indexedBlockHash)) {
+            return;
+        }
+
+        long fromBlock = Math.max(startBlock, indexedBlock - reorgDepth + 1);
+        System.out.println("Reorg detectado no bloco " + indexedBlock + ", desfazendo eventos a partir do bloco " + fromBlock);
+        reorgs.incrementAndGet();
+        rollback(fromBlock);
+    }
+
+    private List<Log> fetchLogs(long from, long to) throws Exception {
+        EthFilter filter = new EthFilter(
+            DefaultBlockParameter.valueOf(BigInteger.valueOf(from)),
+            DefaultBlockParameter.valueOf(BigInteger.valueOf(to)),
+            didRegistryAddress
+        );
+        filter.addOptionalTopics(EVENTS_BY_TOPIC.keySet().toArray(new String[0]));
+
+        EthLog response = web3j.ethGetLogs(filter).send();
+        if (response.hasError()) {
+            throw new RuntimeException(response.getError().getMessage());
+        }
+
+        List<Log> logs = new ArrayList<>();
+        for (EthLog.LogResult<?> result : response.getLogs()) {
+            if (result instanceof EthLog.LogObject log) {
+                logs.add(log.get());
+            }
+        }
+        return logs;
+    }
+
+    private String blockHash(long blockNumber) throws Exception {
+        ChainHeadTracker.Head head = headTracker.getHead();
+        if (head != null && head.number() == blockNumber) {
+            return head.hash();
+        }
+        EthBlock response = web3j.ethGetBlockByNumber(
+            DefaultBlockParameter.valueOf(BigInteger.valueOf(blockNumber)), false).send();
+        return response.getBlock() != null ? response.getBlock().getHash() : null;
+    }
+
+    /**
+     * Hash do bloco, lido antes dos logs da faixa: um nó que ainda não tem o bloco (atrás do head
+     * visto por outro nó) falha aqui em vez de devolver uma faixa incompleta
+     */
+    private String requireBlockHash(long blockNumber) throws Exception {
+        String hash = blockHash(blockNumber);
+        if (hash == null) {
+            throw new RuntimeException("Bloco " + blockNumber + " ainda não disponível no nó");
+        }
+        return hash;
+    }
+
+    /**
+     * Grava os eventos da faixa, atualiza as projeções e avança o checkpoint em uma transação
+     */
+    private void applyRange(List<Log> logs, long toBlock, String toBlockHash) {
+        List<ChainEvent> events = new ArrayList<>(logs.size());
+        for (Log log : logs) {
+            ChainEvent event = decode(log);
+            if (event != null) {
+                events.add(event);
+            }
+        }
+
+        Projection projection = new Projection(credentialRepository::findById, identityRepository::findById);
+        transactionTemplate.executeWithoutResult(status -> {
+            events.forEach(projection::apply);
+            eventRepository.saveAll(events);
+            credentialRepository.saveAll(projection.credentials.values());
+            identityRepository.saveAll(projection.identities.values());
+            checkpointRepository.save(new ChainIndexerCheckpoint(CHECKPOINT_NAME, toBlock, toBlockHash));
+        });
+
+        publish(projection);
+        indexedBlocks.addAndGet(toBlock - indexedBlock);
+        indexedEvents.addAndGet(events.size());
+        indexedBlock = toBlock;
+        indexedBlockHash = toBlockHash;
+    }
+
+    /**
+     * Remove os eventos a partir do bloco e refaz as projeções afetadas com o histórico restante
+     */
+    private void rollback(long fromBlock) throws Exception {
+        Set<String> credentialKeys = new LinkedHashSet<>();
+        Set<String> identityKeys = new LinkedHashSet<>();
+        for (Object[] row : eventRepository.findEventKeysFromBlock(fromBlock)) {
+            String eventName = (String) row[0];
+            (eventName.startsWith("Credential") ? credentialKeys : identityKeys).add((String) row[1]);
+        }
+
+        long checkpointBlock = fromBlock - 1;
+        String checkpointHash = checkpointBlock >= 0 ? blockHash(checkpointBlock) : null;
+
+        // Projeção a partir do zero: só os eventos que sobraram contam
+        Projection projection = new Projection(key -> Optional.empty(), key -> Optional.empty());
+        transactionTemplate.executeWithoutResult(status -> {
+            eventRepository.deleteFromBlock(fromBlock);
+            for (String key : credentialKeys) {
+                replay(key, projection);
+                if (!projection.credentials.containsKey(key)) {
+                    credentialRepository.deleteById(key);
+                }
+            }
+            for (String key : identityKeys) {
+                replay(key, projection);
+                if (!projection.identities.containsKey(key)) {
+                    identityRepository.deleteById(key);
+                }
+            }
+            credentialRepository.saveAll(projection.credentials.values());
+            identityRepository.saveAll(projection.identities.values());
+            checkpointRepository.save(new ChainIndexerCheckpoint(CHECKPOINT_NAME, checkpointBlock, checkpointHash));
+        });
+
+        credentialKeys.forEach(key -> { if (!projection.credentials.containsKey(key)) revokedCredentials.remove(key); });
+        identityKeys.forEach(key -> { if (!projection.identities.containsKey(key)) kycVerified.remove(key); });
+        publish(projection);
+        indexedBlock = checkpointBlock;
+        indexedBlockHash = checkpointHash;
+    }
+
+    private void replay(String key, Projection projection) {
+        eventRepository.findByEventKeyOrderByBlockNumberAscLogIndexAsc(key).forEach(projection::apply);
+    }
+
+    /**
+     * Atualiza os conjuntos em memória depois que a transação foi confirmada
+     */
+    private void publish(Projection projection) {
+        for (OnChainCredential credential : projection.credentials.values()) {
+            if (credential.isRevoked()) {
+                revokedCredentials.add(credential.getCredentialId());
+            } else {
+                revokedCredentials.remove(credential.getCredentialId());
+            }
+        }
+        for (OnChainIdentity identity : projection.identities.values()) {
+            if (identity.isKycVerified()) {
+                kycVerified.add(identity.getIdentity());
+            } else {
+                kycVerified.remove(identity.getIdentity());
+            }
+        }
+    }
+
+    /**
+     * Decodifica um log do registry; eventos não indexados retornam null
+     */
+    ChainEvent decode(Log log) {
+        if (log.isRemoved() || log.getTopics() == null || log.getTopics().isEmpty()) {
+            return null;
+        }
+        Event definition = EVENTS_BY_TOPIC.get(log.getTopics().get(0).toLowerCase());
+        if (definition == null) {
+            return null;
+        }
+
+        EventValues values = Contract.staticExtractEventParameters(definition, log);
+        // O EventValues do web3j devolve List<Type> crua
+        @SuppressWarnings("rawtypes")
+        List<Type> indexed = values.getIndexedValues();
+        @SuppressWarnings("rawtypes")
+        List<Type> data = values.getNonIndexedValues();
+
+        ChainEvent event = new ChainEvent();
+        event.setBlockNumber(log.getBlockNumber().longValue());
+        event.setBlockHash(log.getBlockHash());
+        event.setTxHash(log.getTransactionHash());
+        event.setLogIndex(log.getLogIndex().intValue());
+        event.setEventName(definition.getName());
+
+        Map<String, Object> payload = new LinkedHashMap<>();
+        switch (definition.getName()) {
+            case "CredentialIssued" -> {
+                event.setEventKey(hex(indexed.get(0)));
+                event.setActor(address(indexed.get(1)));
+                event.setSubject(address(indexed.get(2)));
+                payload.put("credentialHash", hex(data.get(0)));
+                payload.put("timestamp", data.get(1).getValue());
+            }
+            case "CredentialRevoked", "CredentialRestored" -> {
+                event.setEventKey(hex(indexed.get(0)));
+                event.setActor(address(indexed.get(1)));
+                event.setSubject(address(indexed.get(2)));
+                payload.put("reason", data.get(0).getValue());
+                payload.put("timestamp", data.get(1).getValue());
+            }
+            case "DIDCreated" -> {
+                event.setEventKey(address(indexed.get(0)));
+                event.setActor(address(indexed.get(1)));
+                payload.put("didDocument", data.get(0).getValue());
+                payload.put("timestamp", data.get(1).getValue());
+            }
+            case "KYCStatusChanged" -> {
+                event.setEventKey(address(indexed.get(0)));
+                event.setActor(address(indexed.get(1)));
+                payload.put("verified", data.get(0).getValue());
+                payload.put("timestamp", data.get(1).getValue());
+            }
+            default -> {
+                // DIDAttributeChanged: fica só no histórico de eventos da identidade
+                event.setEventKey(address(indexed.get(0)));
+                payload.put("name", hex(data.get(0)));
+                payload.put("value", hex(data.get(1)));
+                payload.put("validTo", data.get(2).getValue());
+                payload.put("previousChange", data.get(3).getValue());
+            }
+        }
+
+        try {
+            event.setPayload(objectMapper.writeValueAsString(payload));
+        } catch (Exception e) {
+            throw new RuntimeException("Erro ao serializar evento " + definition.getName() + ": " + e.getMessage(), e);
+        }
+        return event;
+    }
+
+    private static String hex(Type<?> value) {
+        return Numeric.toHexString((byte[]) value.getValue());
+    }
+
+    private static String address(Type<?> value) {
+        return value.getValue().toString().toLowerCase();
+    }
+
+    /**
+     * Estado das projeções alteradas por um conjunto de eventos, aplicados em ordem
+     */
+    private final class Projection {
+
+        private final Map<String, OnChainCredential> credentials = new LinkedHashMap<>();
+        private final Map<String, OnChainIdentity> identities = new LinkedHashMap<>();
+
+        private final Function<String, Optional<OnChainCredential>> credentialLoader;
+        private final Function<String, Optional<OnChainIdentity>> identityLoader;
+
+        private Projection(Function<String, Optional<OnChainCredential>> credentialLoader,
+                           Function<String, Optional<OnChainIdentity>> identityLoader) {
+            this.credentialLoader = credentialLoader;
+            this.identityLoader = identityLoader;
+        }
+
+        private void apply(ChainEvent event) {
+            JsonNode payload = readPayload(event);
+            long block = event.getBlockNumber();
+            long timestamp = payload.path("timestamp").asLong();
+
+            switch (event.getEventName()) {
+                case "CredentialIssued" -> {
+                    OnChainCredential credential = credential(event.getEventKey());
+                    credential.setIssuer(event.getActor());
+                    credential.setSubject(event.getSubject());
+                    credential.setCredentialHash(payload.path("credentialHash").asText(null));
+                    credential.setRevoked(false);
+                    credential.setRevoker(event.getActor());
+                    credential.setReason("");
+                    credential.setStatusTimestamp(timestamp);
+                    credential.setIssuedBlock(block);
+                    touch(credential, block);
+                }
+                case "CredentialRevoked", "CredentialRestored" -> {
+                    OnChainCredential credential = credential(event.getEventKey());
+                    if (credential.getSubject() == null) {
+                        credential.setSubject(event.getSubject());
+                    }
+                    credential.setRevoked("CredentialRevoked".equals(event.getEventName()));
+                    credential.setRevoker(event.getActor());
+                    credential.setReason(payload.path("reason").asText(""));
+                    credential.setStatusTimestamp(timestamp);
+                    touch(credential, block);
+                }
+                case "DIDCreated" -> {
+                    OnChainIdentity identity = identity(event.getEventKey());
+                    identity.setDidCreated(true);
+                    identity.setCreator(event.getActor());
+                    touch(identity, block);
+                }
+                case "KYCStatusChanged" -> {
+                    OnChainIdentity identity = identity(event.getEventKey());
+                    identity.setKycVerified(payload.path("verified").asBoolean());
+                    identity.setKycVerifier(event.getActor());
+                    identity.setKycTimestamp(timestamp);
+                    touch(identity, block);
+                }
+                default -> {
+                    // Sem projeção
+                }
+            }
+        }
+
+        private OnChainCredential credential(String key) {
+            return credentials.computeIfAbsent(key,
+                k -> credentialLoader.apply(k).orElseGet(() -> new OnChainCredential(k)));
+        }
+
+        private OnChainIdentity identity(String key) {
+            return identities.computeIfAbsent(key,
+                k -> identityLoader.apply(k).orElseGet(() -> new OnChainIdentity(k)));
+        }
+
+        private void touch(OnChainCredential credential, long block) {
+            credential.setUpdatedBlock(block);
+            credential.setUpdatedAt(LocalDateTime.now());
+        }
+
+        private void touch(OnChainIdentity identity, long block) {
+            identity.setUpdatedBlock(block);
+            identity.setUpdatedAt(LocalDateTime.now());
+        }
+    }
+
+    private JsonNode readPayload(ChainEvent event) {
+        try {
+            return objectMapper.readTree(event.getPayload() != null ? event.getPayload() : "{}");
+        } catch (Exception e) {
+            throw new RuntimeException("Payload inválido no evento " + event.getTxHash() + "#" + event.getLogIndex(), e);
+        }
+    }
+}
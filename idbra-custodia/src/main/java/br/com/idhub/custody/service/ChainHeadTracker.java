@@ -0,0 +1,149 @@
+package br.com.idhub.custody.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.methods.response.EthBlock;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Acompanha o bloco mais recente da rede (número, hash, parentHash e logsBloom) e avisa os
+ * interessados a cada novo head, na ordem em que chegam. Os heads vêm por polling HTTP ou,
+ * com a assinatura newHeads ativa (ChainSubscriptionService), pelo WebSocket.
+ */
+@Component
+public class ChainHeadTracker {
+
+    public record Head(long number, String hash, String parentHash, String logsBloom, long observedAt) {
+
+        /**
+         * Verdadeiro se este head estende diretamente o anterior (sem lacuna nem reorg)
+         */
+        public boolean follows(Head previous) {
+            return previous != null && number == previous.number + 1 && parentHash != null &&
+                   parentHash.equalsIgnoreCase(previous.hash);
+        }
+    }
+
+    private final Web3j web3j;
+
+    private final ReceiptPoller receiptPoller;
+
+    @Value("${blockchain.head.poll-interval-ms:1000}")
+    private long pollIntervalMs;
+
+    // Head mais velho que isso é tratado como desconhecido (nó inacessível ou parado)
+    @Value("${blockchain.head.max-age-ms:15000}")
+    private long maxAgeMs;
+
+    private final List<Consumer<Head>> listeners = new CopyOnWriteArrayList<>();
+
+    private volatile Head head;
+
+    // Heads chegando pelo WebSocket: o polling HTTP só roda se o head envelhecer
+    private volatile boolean subscribed;
+
+    private ScheduledExecutorService scheduler;
+
+    public ChainHeadTracker(Web3j web3j, ReceiptPoller receiptPoller) {
+        this.web3j = web3j;
+        this.receiptPoller = receiptPoller;
+    }
+
+    @PostConstruct
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "chain-head-tracker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::poll, 0, pollIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    public void addListener(Consumer<Head> listener) {
+        listeners.add(listener);
+    }
+
+    public void setSubscribed(boolean subscribed) {
+        this.subscribed = subscribed;
+    }
+
+    public boolean isSubscribed() {
+        return subscribed;
+    }
+
+    /**
+     * Head atual, ou null se ainda não houve leitura
+     */
+    public Head getHead() {
+        return head;
+    }
+
+    /**
+     * Verdadeiro se o head foi confirmado recentemente
+     */
+    public boolean isFresh() {
+        Head current = head;
+        return current != null && System.currentTimeMillis() - current.observedAt() <= maxAgeMs;
+    }
+
+    private void poll() {
+        if (subscribed && isFresh()) {
+            return;
+        }
+        try {
+            EthBlock response = web3j.ethGetBlockByNumber(DefaultBlockParameterName.LATEST, false).send();
+            if (response.hasError() || response.getBlock() == null) {
+                return;
+            }
+            EthBlock.Block block = response.getBlock();
+            observe(new Head(block.getNumber().longValue(), block.getHash(), block.getParentHash(),
+                             block.getLogsBloom(), System.currentTimeMillis()));
+        } catch (Throwable e) {
+            System.out.println("Erro ao consultar o head da rede: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Registra um head observado; mesmo bloco só renova o horário da observação
+     */
+    synchronized void observe(Head observed) {
+        Head previous = head;
+        // Com vários nós, um nó atrasado não faz o head regredir (salvo se o atual já envelheceu)
+        if (previous != null && observed.number() < previous.number() && isFresh()) {
+            return;
+        }
+        head = observed;
+        if (previous != null && previous.number() == observed.number() &&
+            observed.hash() != null && observed.hash().equalsIgnoreCase(previous.hash())) {
+            return;
+        }
+
+        for (Consumer<Head> listener : listeners) {
+            try {
+                listener.accept(observed);
+            } catch (Exception e) {
+                System.out.println("Erro ao notificar novo bloco " + observed.number() + ": " + e.getMessage());
+            }
+        }
+
+        // Novo bloco pode trazer recibos pendentes: não esperar o back-off do poller
+        if (receiptPoller.getPendingCount() > 0) {
+            receiptPoller.pollNow();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package br.com.idhub.custody.service;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Situação do indexador de eventos em /actuator/health (componente chainIndexer): bloco indexado,
+ * atraso em relação ao head e progresso/vazão do backfill. Atraso não derruba o health,
+ * já que as leituras voltam para eth_call enquanto o índice não está em dia.
+ */
+@Component
+public class ChainIndexerHealthIndicator implements HealthIndicator {
+
+    private final ChainEventIndexer indexer;
+
+    public ChainIndexerHealthIndicator(ChainEventIndexer indexer) {
+        this.indexer = indexer;
+    }
+
+    @Override
+    public Health health() {
+        ChainEventIndexer.BackfillStatus backfill = indexer.getBackfillStatus();
+
+        Map<String, Object> backfillDetails = new LinkedHashMap<>();
+        backfillDetails.put("running", backfill.running());
+        backfillDetails.put("fromBlock", backfill.fromBlock());
+        backfillDetails.put("toBlock", backfill.toBlock());
+        backfillDetails.put("completedBlock", backfill.completedBlock());
+        backfillDetails.put("events", backfill.events());
+        backfillDetails.put("progress", Math.round(backfill.progress() * 10000) / 100.0 + "%");
+        backfillDetails.put("blocksPerSecond", Math.round(backfill.blocksPerSecond()));
+
+        return Health.up()
+                .withDetail("indexedBlock", indexer.getIndexedBlock())
+                .withDetail("lagBlocks", indexer.getLagBlocks())
+                .withDetail("caughtUp", indexer.isCaughtUp())
+                .withDetail("backfill", backfillDetails)
+                .build();
+    }
+}
@@ -0,0 +1,171 @@
+package br.com.idhub.custody.service;
+
+import org.web3j.protocol.core.methods.response.Log;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Backfill de logs: divide [from, to] em faixas, lê várias faixas em paralelo (paralelismo
+ * limitado) e entrega os resultados ao handler em ordem de bloco. Uma faixa recusada pelo nó
+ * (resposta grande demais, timeout) é dividida ao meio até caber.
+ */
+public class ChainLogBackfill {
+
+    /**
+     * Lê os logs de uma faixa e o hash do seu último bloco
+     */
+    @FunctionalInterface
+    public interface RangeFetcher {
+        RangeResult fetch(long from, long to) throws Exception;
+    }
+
+    /**
+     * Aplica o resultado de uma faixa; chamado em ordem, uma faixa por vez
+     */
+    @FunctionalInterface
+    public interface RangeHandler {
+        void apply(RangeResult result) throws Exception;
+    }
+
+    public record RangeResult(long from, long to, String toBlockHash, List<Log> logs) {}
+
+    private final RangeFetcher fetcher;
+    private final int rangeSize;
+    private final int parallelism;
+    private final ExecutorService executor;
+
+    // Tamanho das próximas faixas: cai quando o nó recusa uma faixa, para não repetir a recusa
+    private final AtomicInteger currentRangeSize = new AtomicInteger();
+
+    private volatile long fromBlock = -1;
+    private volatile long toBlock = -1;
+    private volatile long completedBlock = -1;
+    private volatile long logCount;
+    private volatile long startedAt;
+    private volatile long finishedAt;
+    private volatile boolean running;
+
+    public ChainLogBackfill(RangeFetcher fetcher, int rangeSize, int parallelism) {
+        this.fetcher = fetcher;
+        this.rangeSize = rangeSize;
+        this.parallelism = parallelism;
+        this.executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "chain-log-backfill");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Processa [from, to]; em caso de erro para na última faixa aplicada e propaga a exceção
+     */
+    public void run(long from, long to, RangeHandler handler) throws Exception {
+        fromBlock = from;
+        toBlock = to;
+        completedBlock = from - 1;
+        logCount = 0;
+        startedAt = System.currentTimeMillis();
+        finishedAt = 0;
+        running = true;
+        currentRangeSize.set(rangeSize);
+        System.out.println("Backfill de logs: blocos " + from + " a " + to + " (" + parallelism + " leituras em paralelo)");
+
+        // Janela de faixas em leitura; o consumo segue a ordem de submissão
+        Deque<Future<RangeResult>> window = new ArrayDeque<>();
+        long next = from;
+        try {
+            while (next <= to || !window.isEmpty()) {
+                while (next <= to && window.size() < parallelism * 2) {
+                    long rangeFrom = next;
+                    long rangeTo = Math.min(to, rangeFrom + currentRangeSize.get() - 1);
+                    window.add(executor.submit(() -> fetchAdaptive(rangeFrom, rangeTo)));
+                    next = rangeTo + 1;
+                }
+
+                RangeResult result = window.poll().get();
+                handler.apply(result);
+                completedBlock = result.to();
+                logCount += result.logs().size();
+            }
+            System.out.println("Backfill de logs concluído: " + (to - from + 1) + " blocos, " + logCount +
+                               " eventos, " + String.format("%.0f", getBlocksPerSecond()) + " blocos/s");
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        } finally {
+            window.forEach(future -> future.cancel(true));
+            finishedAt = System.currentTimeMillis();
+            running = false;
+        }
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public long getFromBlock() {
+        return fromBlock;
+    }
+
+    public long getToBlock() {
+        return toBlock;
+    }
+
+    public long getCompletedBlock() {
+        return completedBlock;
+    }
+
+    public long getLogCount() {
+        return logCount;
+    }
+
+    /**
+     * Fração concluída do backfill atual (ou do último), entre 0 e 1
+     */
+    public double getProgress() {
+        long total = toBlock - fromBlock + 1;
+        if (fromBlock < 0 || total <= 0) {
+            return 0;
+        }
+        return Math.min(1.0, (double) (completedBlock - fromBlock + 1) / total);
+    }
+
+    public double getBlocksPerSecond() {
+        long elapsed = (finishedAt > 0 ? finishedAt : System.currentTimeMillis()) - startedAt;
+        if (startedAt == 0 || elapsed <= 0) {
+            return 0;
+        }
+        return (completedBlock - fromBlock + 1) * 1000.0 / elapsed;
+    }
+
+    private RangeResult fetchAdaptive(long from, long to) throws Exception {
+        try {
+            return fetcher.fetch(from, to);
+        } catch (Exception e) {
+            if (from >= to || Thread.currentThread().isInterrupted()) {
+                throw e;
+            }
+            long middle = from + (to - from) / 2;
+            currentRangeSize.accumulateAndGet((int) Math.max(1, middle - from + 1), Math::min);
+            System.out.println("Faixa " + from + "-" + to + " recusada (" + e.getMessage() + "), dividindo ao meio");
+
+            RangeResult first = fetchAdaptive(from, middle);
+            RangeResult second = fetchAdaptive(middle + 1, to);
+            List<Log> logs = new ArrayList<>(first.logs().size() + second.logs().size());
+            logs.addAll(first.logs());
+            logs.addAll(second.logs());
+            return new RangeResult(from, to, second.toBlockHash(), logs);
+        }
+    }
+}
@@ -0,0 +1,356 @@
+package br.com.idhub.custody.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.web3j.crypto.Hash;
+import org.web3j.protocol.core.DefaultBlockParameter;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.methods.response.EthCall;
+import org.web3j.utils.Numeric;
+
+import java.math.BigInteger;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Cache de resultados de eth_call, indexado por (contrato, calldata) e marcado com o bloco em
+ * que foi lido. Uma leitura vale enquanto nenhum bloco posterior puder ter alterado o
+ * contrato: no modo wholesale todo novo bloco invalida tudo; no modo selective só os contratos
+ * cujo endereço aparece no logsBloom do bloco. Lacunas e reorgs invalidam tudo.
+ * Leituras concorrentes da mesma chave compartilham uma única chamada ao nó, feita no bloco da
+ * marca (não em LATEST) para que o valor guardado corresponda ao bloco em que foi marcado.
+ * A marca é o head atual, ou o bloco de uma alteração conhecida do contrato acima dele (ex.:
+ * recibo de uma transação própria ainda não visto pelo head): a escrita é sempre visível na leitura seguinte.
+ * Só serve funções que dependem do estado do contrato: as que comparam com block.timestamp
+ * (ex.: validDelegate) mudam sem log e devem ser lidas fora do cache.
+ */
+@Component
+public class ChainReadCache {
+
+    /**
+     * Marca de uma leitura: época (avança em reorgs e lacunas) e bloco em que é feita (head no início
+     * da leitura, ou alteração conhecida do contrato acima dele)
+     */
+    public record Tag(long epoch, long blockNumber) {}
+
+    private final ChainHeadTracker headTracker;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${blockchain.read-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${blockchain.read-cache.max-entries:10000}")
+    private int maxEntries;
+
+    // selective: usa o logsBloom do bloco; wholesale: todo novo bloco invalida todas as leituras
+    @Value("${blockchain.read-cache.invalidation:selective}")
+    private String invalidation;
+
+    // Entrega o valor já invalidado enquanto a releitura roda em segundo plano
+    @Value("${blockchain.read-cache.stale-while-revalidate:false}")
+    private boolean staleWhileRevalidate;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong staleHits = new AtomicLong();
+    private final AtomicLong bypassed = new AtomicLong();
+
+    // Último bloco que pode ter alterado cada contrato (endereço minúsculo)
+    private final ConcurrentHashMap<String, Long> changedAt = new ConcurrentHashMap<>();
+
+    // Último bloco que invalidou todos os contratos (modo wholesale ou invalidateAll)
+    private volatile long allChangedAt = -1;
+
+    private final AtomicLong epoch = new AtomicLong();
+
+    // Ordem de acesso: a entrada mais antiga é a menos usada recentemente
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private volatile ChainHeadTracker.Head lastHead;
+
+    public ChainReadCache(ChainHeadTracker headTracker, MeterRegistry meterRegistry) {
+        this.headTracker = headTracker;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void start() {
+        headTracker.addListener(this::onNewHead);
+
+        FunctionCounter.builder("blockchain.read_cache.hits", hits, AtomicLong::get)
+                .description("Leituras atendidas pelo cache (inclui chamadas já em andamento)")
+                .register(meterRegistry);
+        FunctionCounter.builder("blockchain.read_cache.misses", misses, AtomicLong::get)
+                .description("Leituras enviadas ao nó por ausência ou invalidação")
+                .register(meterRegistry);
+        FunctionCounter.builder("blockchain.read_cache.stale_hits", staleHits, AtomicLong::get)
+                .description("Leituras atendidas com valor invalidado (stale-while-revalidate)")
+                .register(meterRegistry);
+        FunctionCounter.builder("blockchain.read_cache.bypassed", bypassed, AtomicLong::get)
+                .description("Leituras feitas sem cache por head desconhecido ou desatualizado")
+                .register(meterRegistry);
+        Gauge.builder("blockchain.read_cache.size", this, ChainReadCache::size)
+                .description("Resultados de eth_call em memória")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Resultado da leitura (contrato, calldata): do cache se ainda válido no head atual,
+     * senão do loader, que recebe o bloco da leitura e é chamado uma única vez para leituras concorrentes
+     */
+    public CompletableFuture<EthCall> call(String contract, String data,
+                                           Function<DefaultBlockParameter, CompletableFuture<EthCall>> loader) {
+        Tag tag = currentTag(contract);
+        if (tag == null) {
+            bypassed.incrementAndGet();
+            return loader.apply(DefaultBlockParameterName.LATEST);
+        }
+
+        String key = key(contract, data);
+        CompletableFuture<EthCall> pending;
+        String staleValue = null;
+
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.value != null && isValid(contract, entry.tag)) {
+                hits.incrementAndGet();
+                return CompletableFuture.completedFuture(toEthCall(entry.value));
+            }
+            if (entry != null && entry.pending != null && isValid(contract, entry.pendingTag)) {
+                hits.incrementAndGet();
+                return entry.pending;
+            }
+
+            if (entry != null && entry.value != null && staleWhileRevalidate) {
+                staleHits.incrementAndGet();
+                staleValue = entry.value;
+                if (entry.pending != null) {
+                    // Releitura já em andamento: só devolver o valor anterior
+                    return CompletableFuture.completedFuture(toEthCall(staleValue));
+                }
+            } else {
+                misses.incrementAndGet();
+            }
+
+            if (entry == null) {
+                entry = new Entry();
+                entries.put(key, entry);
+                trim();
+            }
+            pending = new CompletableFuture<>();
+            entry.pending = pending;
+            entry.pendingTag = tag;
+        }
+
+        load(key, tag, pending, loader);
+        return staleValue != null ? CompletableFuture.completedFuture(toEthCall(staleValue)) : pending;
+    }
+
+    /**
+     * Valor ainda válido no head atual, ou null (usado por leituras agregadas)
+     */
+    public String getFresh(String contract, String data) {
+        if (currentTag(contract) == null) {
+            return null;
+        }
+        synchronized (entries) {
+            Entry entry = entries.get(key(contract, data));
+            if (entry != null && entry.value != null && isValid(contract, entry.tag)) {
+                hits.incrementAndGet();
+                return entry.value;
+            }
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Marca para ler o contrato, ou null se o cache não está em uso; capturar antes da leitura e
+     * repassar em put. Fica no head atual, salvo quando uma alteração conhecida do contrato está
+     * acima dele: aí a leitura é feita no bloco da alteração, nunca antes da própria escrita.
+     */
+    public Tag currentTag(String contract) {
+        ChainHeadTracker.Head head = headTracker.getHead();
+        if (!enabled || head == null || !headTracker.isFresh()) {
+            return null;
+        }
+        Long changed = changedAt.get(contract.toLowerCase());
+        long blockNumber = changed != null ? Math.max(head.number(), changed) : head.number();
+        return new Tag(epoch.get(), blockNumber);
+    }
+
+    /**
+     * Bloco em que uma leitura com a marca deve ser feita (LATEST sem marca)
+     */
+    public static DefaultBlockParameter blockParameter(Tag tag) {
+        return tag != null ? DefaultBlockParameter.valueOf(BigInteger.valueOf(tag.blockNumber()))
+                           : DefaultBlockParameterName.LATEST;
+    }
+
+    /**
+     * Armazena um resultado lido fora do cache com a marca capturada antes da leitura
+     */
+    public void put(String contract, String data, String value, Tag tag) {
+        if (tag == null || value == null) {
+            return;
+        }
+        synchronized (entries) {
+            Entry entry = entries.computeIfAbsent(key(contract, data), k -> new Entry());
+            store(entry, value, tag);
+            trim();
+        }
+    }
+
+    /**
+     * Invalida as leituras de um contrato feitas antes do bloco informado
+     * (ex.: bloco do recibo de uma transação própria)
+     */
+    public void invalidate(String contract, long blockNumber) {
+        changedAt.merge(contract.toLowerCase(), blockNumber, Math::max);
+    }
+
+    public void invalidateAll() {
+        epoch.incrementAndGet();
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private boolean isValid(String contract, Tag tag) {
+        if (tag == null || tag.epoch() != epoch.get() || tag.blockNumber() < allChangedAt) {
+            return false;
+        }
+        Long changed = changedAt.get(contract.toLowerCase());
+        return changed == null || tag.blockNumber() >= changed;
+    }
+
+    private void load(String key, Tag tag, CompletableFuture<EthCall> pending,
+                      Function<DefaultBlockParameter, CompletableFuture<EthCall>> loader) {
+        CompletableFuture<EthCall> call;
+        try {
+            call = loader.apply(blockParameter(tag));
+        } catch (Exception e) {
+            call = CompletableFuture.failedFuture(e);
+        }
+
+        call.whenComplete((response, error) -> {
+            synchronized (entries) {
+                Entry entry = entries.get(key);
+                if (entry != null) {
+                    if (error == null && !response.hasError()) {
+                        store(entry, response.getValue(), tag);
+                    }
+                    if (entry.pending == pending) {
+                        entry.pending = null;
+                    }
+                    // Erros não ficam em cache
+                    if (entry.value == null && entry.pending == null) {
+                        entries.remove(key);
+                    }
+                }
+            }
+            if (error != null) {
+                pending.completeExceptionally(error);
+            } else {
+                pending.complete(response);
+            }
+        });
+    }
+
+    private void store(Entry entry, String value, Tag tag) {
+        // Um resultado mais antigo que o armazenado não o substitui
+        if (entry.tag == null || tag.epoch() > entry.tag.epoch() ||
+            (tag.epoch() == entry.tag.epoch() && tag.blockNumber() >= entry.tag.blockNumber())) {
+            entry.value = value;
+            entry.tag = tag;
+        }
+    }
+
+    private void trim() {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (entries.size() > maxEntries && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private void onNewHead(ChainHeadTracker.Head head) {
+        ChainHeadTracker.Head previous = lastHead;
+        lastHead = head;
+
+        if (!head.follows(previous)) {
+            // Lacuna ou reorg: não dá para saber o que mudou nos blocos não vistos
+            invalidateAll();
+            return;
+        }
+        if (!"selective".equalsIgnoreCase(invalidation) || head.logsBloom() == null) {
+            allChangedAt = head.number();
+            return;
+        }
+
+        byte[] bloom = Numeric.hexStringToByteArray(head.logsBloom());
+        for (String contract : knownContracts()) {
+            if (bloomContains(bloom, contract)) {
+                invalidate(contract, head.number());
+            }
+        }
+    }
+
+    private Set<String> knownContracts() {
+        Set<String> contracts = new HashSet<>();
+        synchronized (entries) {
+            for (String key : entries.keySet()) {
+                contracts.add(key.substring(0, key.indexOf(':')));
+            }
+        }
+        return contracts;
+    }
+
+    /**
+     * Teste do filtro de Bloom de logs (2048 bits, 3 bits por keccak256 do endereço)
+     */
+    static boolean bloomContains(byte[] bloom, String address) {
+        if (bloom.length != 256) {
+            return true;
+        }
+        byte[] hash = Hash.sha3(Numeric.hexStringToByteArray(address));
+        for (int i = 0; i < 6; i += 2) {
+            int bit = ((hash[i] & 0xFF) << 8 | (hash[i + 1] & 0xFF)) & 2047;
+            if ((bloom[255 - bit / 8] & (1 << (bit % 8))) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String key(String contract, String data) {
+        return contract.toLowerCase() + ":" + data.toLowerCase();
+    }
+
+    private static EthCall toEthCall(String value) {
+        EthCall response = new EthCall();
+        response.setJsonrpc("2.0");
+        response.setResult(value);
+        return response;
+    }
+
+    private static final class Entry {
+        private String value;
+        private Tag tag;
+        private CompletableFuture<EthCall> pending;
+        private Tag pendingTag;
+    }
+}
@@ -0,0 +1,217 @@
+package br.com.idhub.custody.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.reactivex.disposables.Disposable;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.websocket.WebSocketService;
+import org.web3j.protocol.websocket.events.NewHead;
+import org.web3j.utils.Numeric;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Assinaturas WebSocket (eth_subscribe) de newHeads e dos logs do IDBraDIDRegistry.
+ * Os heads alimentam o ChainHeadTracker (recibos, cache de leituras e indexador reagem no
+ * mesmo bloco) e os logs agendam a sincronização do indexador. Se a conexão cai ou para de
+ * entregar heads, reconecta com back-off e assina de novo; os blocos perdidos no intervalo são
+ * lidos pelo indexador a partir do checkpoint. Sem web3.node.ws-url, ou enquanto desconectado,
+ * tudo continua por polling HTTP.
+ */
+@Component
+public class ChainSubscriptionService {
+
+    private final ChainHeadTracker headTracker;
+    private final ChainEventIndexer eventIndexer;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${web3.node.ws-url:}")
+    private String wsUrl;
+
+    @Value("${blockchain.did-registry-address:0x34c2AcC42882C0279A64bB1a4B1083D483BdE886}")
+    private String didRegistryAddress;
+
+    @Value("${blockchain.subscriptions.reconnect-initial-delay-ms:1000}")
+    private long reconnectInitialDelayMs;
+
+    @Value("${blockchain.subscriptions.reconnect-max-delay-ms:30000}")
+    private long reconnectMaxDelayMs;
+
+    // Conexão aberta sem heads por esse tempo é tratada como morta
+    @Value("${blockchain.subscriptions.stall-timeout-ms:60000}")
+    private long stallTimeoutMs;
+
+    private final AtomicLong reconnects = new AtomicLong();
+    private final AtomicLong notifications = new AtomicLong();
+
+    private ScheduledExecutorService scheduler;
+
+    private volatile WebSocketService service;
+    private Disposable headsSubscription;
+    private Disposable logsSubscription;
+    private volatile long reconnectDelayMs;
+    private volatile boolean connected;
+    private volatile long connectedAt;
+    private volatile long lastHeadAt;
+
+    public ChainSubscriptionService(ChainHeadTracker headTracker,
+                                    ChainEventIndexer eventIndexer,
+                                    MeterRegistry meterRegistry) {
+        this.headTracker = headTracker;
+        this.eventIndexer = eventIndexer;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void start() {
+        Gauge.builder("blockchain.subscriptions.connected", this, subscriptions -> subscriptions.isConnected() ? 1 : 0)
+                .description("1 se as assinaturas WebSocket estão ativas, 0 se em polling HTTP")
+                .register(meterRegistry);
+        FunctionCounter.builder("blockchain.subscriptions.reconnects", reconnects, AtomicLong::get)
+                .description("Reconexões do WebSocket de assinaturas")
+                .register(meterRegistry);
+        FunctionCounter.builder("blockchain.subscriptions.notifications", notifications, AtomicLong::get)
+                .description("Heads e logs recebidos pelo WebSocket")
+                .register(meterRegistry);
+
+        if (wsUrl == null || wsUrl.isBlank()) {
+            System.out.println("web3.node.ws-url não configurado: heads e eventos por polling HTTP");
+            return;
+        }
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "chain-subscriptions");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reconnectDelayMs = reconnectInitialDelayMs;
+        scheduler.execute(this::connect);
+        scheduler.scheduleWithFixedDelay(this::checkStall, stallTimeoutMs, stallTimeoutMs / 2, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            disconnect();
+        }
+    }
+
+    public boolean isConnected() {
+        return connected;
+    }
+
+    private synchronized void connect() {
+        WebSocketService ws = new WebSocketService(wsUrl, false);
+        try {
+            ws.connect();
+            Web3j subscriptions = Web3j.build(ws);
+            service = ws;
+            connectedAt = System.currentTimeMillis();
+            lastHeadAt = 0;
+
+            headsSubscription = subscriptions.newHeadsNotifications().subscribe(
+                notification -> onNewHead(ws, notification.getParams().getResult()),
+                error -> onSubscriptionError(ws, error));
+            // Só o endereço: a lista de topics do eth_subscribe é posicional, não um OU entre eventos
+            logsSubscription = subscriptions.logsNotifications(List.of(didRegistryAddress), List.of()).subscribe(
+                notification -> onLog(ws),
+                error -> onSubscriptionError(ws, error));
+
+            connected = true;
+            System.out.println("Assinaturas WebSocket ativas em " + wsUrl);
+
+            // Blocos perdidos enquanto desconectado: o indexador lê a lacuna a partir do checkpoint
+            eventIndexer.requestSync();
+        } catch (Exception e) {
+            System.out.println("WebSocket indisponível (" + e.getMessage() + "), mantendo polling HTTP");
+            ws.close();
+            scheduleReconnect();
+        }
+    }
+
+    private void onNewHead(WebSocketService source, NewHead newHead) {
+        if (source != service) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        lastHeadAt = now;
+        // Só uma conexão que entrega heads zera o back-off (eth_subscribe recusado não conta)
+        reconnectDelayMs = reconnectInitialDelayMs;
+        notifications.incrementAndGet();
+        headTracker.setSubscribed(true);
+        headTracker.observe(new ChainHeadTracker.Head(Numeric.decodeQuantity(newHead.getNumber()).longValue(),
+                                                      newHead.getHash(), newHead.getParentHash(),
+                                                      newHead.getLogsBloom(), now));
+    }
+
+    private void onLog(WebSocketService source) {
+        if (source != service) {
+            return;
+        }
+        notifications.incrementAndGet();
+        eventIndexer.requestSync();
+    }
+
+    private void onSubscriptionError(WebSocketService source, Throwable error) {
+        synchronized (this) {
+            if (source != service) {
+                return;
+            }
+            System.out.println("Assinatura WebSocket encerrada (" + error.getMessage() + "), voltando ao polling HTTP");
+            disconnect();
+        }
+        scheduleReconnect();
+    }
+
+    /**
+     * Conexão aberta sem heads (nó travado ou proxy que derrubou o WebSocket em silêncio)
+     */
+    private void checkStall() {
+        long lastActivity = Math.max(lastHeadAt, connectedAt);
+        if (!connected || System.currentTimeMillis() - lastActivity <= stallTimeoutMs) {
+            return;
+        }
+        synchronized (this) {
+            System.out.println("Nenhum head pelo WebSocket em " + stallTimeoutMs + " ms, reconectando");
+            disconnect();
+        }
+        scheduleReconnect();
+    }
+
+    private synchronized void disconnect() {
+        connected = false;
+        headTracker.setSubscribed(false);
+        if (headsSubscription != null) {
+            headsSubscription.dispose();
+        }
+        if (logsSubscription != null) {
+            logsSubscription.dispose();
+        }
+        if (service != null) {
+            service.close();
+        }
+        headsSubscription = null;
+        logsSubscription = null;
+        service = null;
+    }
+
+    private synchronized void scheduleReconnect() {
+        if (scheduler.isShutdown()) {
+            return;
+        }
+        long delay = reconnectDelayMs;
+        reconnectDelayMs = Math.min(reconnectMaxDelayMs, reconnectDelayMs * 2);
+        reconnects.incrementAndGet();
+        scheduler.schedule(this::connect, delay, TimeUnit.MILLISECONDS);
+    }
+}
@@ -10,11 +10,15 @@ import org.web3j.abi.datatypes.Utf8String;
 import org.web3j.abi.datatypes.Address;
 import org.web3j.abi.datatypes.DynamicBytes;
 import org.web3j.abi.datatypes.Bool;
+import org.web3j.abi.datatypes.DynamicArray;
+import org.web3j.abi.datatypes.DynamicStruct;
 import org.web3j.utils.Numeric;
 import org.web3j.crypto.Hash;
 
 import java.math.BigInteger;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 @Service
 public class ContractService {
@@ -484,6 +488,49 @@ public class ContractService {
         }
     }
 
+    /**
+     * Gerar dados da função issueCredentialBatch do IDBraDIDRegistry
+     * Assinatura: issueCredentialBatch(bytes32[] credentialIds, address[] subjects, bytes32[] credentialHashes)
+     */
+    public String issueCredentialBatchFunctionData(List<String> credentialIds, List<String> subjects,
+                                                   List<String> credentialHashes) {
+        if (credentialIds.isEmpty() || credentialIds.size() != subjects.size()
+                || credentialIds.size() != credentialHashes.size()) {
+            throw new IllegalArgumentException("Lote inválido: listas vazias ou de tamanhos diferentes");
+        }
+
+        try {
+            List<Bytes32> ids = new ArrayList<>(credentialIds.size());
+            List<Address> addresses = new ArrayList<>(subjects.size());
+            List<Bytes32> hashes = new ArrayList<>(credentialHashes.size());
+
+            for (int i = 0; i < credentialIds.size(); i++) {
+                ids.add(new Bytes32(Hash.sha3(credentialIds.get(i).getBytes())));
+                addresses.add(new Address(subjects.get(i)));
+
+                byte[] hashBytes = Numeric.hexStringToByteArray(credentialHashes.get(i));
+                if (hashBytes.length != 32) {
+                    throw new IllegalArgumentException("Hash deve ter exatamente 32 bytes: " + credentialHashes.get(i));
+                }
+                hashes.add(new Bytes32(hashBytes));
+            }
+
+            Function function = new Function(
+                "issueCredentialBatch",
+                Arrays.asList(
+                    new DynamicArray<>(Bytes32.class, ids),
+                    new DynamicArray<>(Address.class, addresses),
+                    new DynamicArray<>(Bytes32.class, hashes)
+                ),
+                Arrays.asList()
+            );
+
+            return FunctionEncoder.encode(function);
+        } catch (Exception e) {
+            throw new RuntimeException("Erro ao codificar função issueCredentialBatch: " + e.getMessage(), e);
+        }
+    }
+
     /**
      * Gerar dados da função revokeCredential do IDBraDIDRegistry
      * Assinatura correta: revokeCredential(bytes32 credentialId, address subject, string reason)
@@ -774,6 +821,30 @@ public class ContractService {
         }
     }
 
-}
+    /**
+     * Gerar dados da função aggregate3((address,bool,bytes)[]) do Multicall3:
+     * todas as chamadas vão para o mesmo contrato, com allowFailure = true
+     */
+    public String aggregate3FunctionData(String target, List<String> callData) {
+        try {
+            List<DynamicStruct> calls = new ArrayList<>(callData.size());
+            for (String data : callData) {
+                calls.add(new DynamicStruct(
+                    new Address(target),
+                    new Bool(true),
+                    new DynamicBytes(Numeric.hexStringToByteArray(data))
+                ));
+            }
 
+            Function function = new Function(
+                "aggregate3",
+                Arrays.asList(new DynamicArray<>(DynamicStruct.class, calls)),
+                Arrays.asList()
+            );
+            return FunctionEncoder.encode(function);
+        } catch (Exception e) {
+            throw new RuntimeException("Erro ao codificar função aggregate3: " + e.getMessage(), e);
+        }
+    }
 
+}
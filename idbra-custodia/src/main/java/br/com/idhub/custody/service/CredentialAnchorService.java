@@ -0,0 +1,328 @@
+package br.com.idhub.custody.service;
+
+import br.com.idhub.custody.domain.Credential;
+import br.com.idhub.custody.repository.CredentialRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Registro on-chain das credenciais emitidas em modo assíncrono.
+ * A fila durável é a própria tabela: credenciais em PENDING_ANCHOR são enviadas ao contrato
+ * em segundo plano e passam para VALID ou, esgotadas as tentativas, FAILED.
+ */
+@Service
+public class CredentialAnchorService {
+
+    public static final String STATUS_PENDING_ANCHOR = "PENDING_ANCHOR";
+    public static final String STATUS_VALID = "VALID";
+    public static final String STATUS_FAILED = "FAILED";
+
+    @Autowired
+    private CredentialRepository credentialRepository;
+
+    @Autowired
+    private BlockchainService blockchainService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${credential.anchor.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${credential.anchor.retry-delay-ms:15000}")
+    private long retryDelayMs;
+
+    @Value("${credential.anchor.max-in-flight:64}")
+    private int maxInFlight;
+
+    @Value("${credential.anchor.drain-batch-size:100}")
+    private int drainBatchSize;
+
+    @Value("${credential.batch.onchain-batch-enabled:false}")
+    private boolean onchainBatchEnabled;
+
+    @Value("${credential.batch.onchain-batch-size:25}")
+    private int onchainBatchSize;
+
+    @Value("${credential.anchor.submit-threads:4}")
+    private int submitThreads;
+
+    // Credenciais com transação em andamento; evita envio duplicado entre o enqueue e a varredura
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    private ExecutorService submitExecutor;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void start() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        submitExecutor = Executors.newFixedThreadPool(submitThreads, runnable -> {
+            Thread thread = new Thread(runnable, "credential-anchor");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        submitExecutor.shutdownNow();
+    }
+
+    /**
+     * Agenda o registro on-chain de uma credencial já persistida em PENDING_ANCHOR
+     */
+    public void enqueue(Credential credential) {
+        if (inFlight.size() >= maxInFlight) {
+            // Fila cheia: a varredura periódica retoma a credencial
+            return;
+        }
+        if (inFlight.add(credential.getCredentialId())) {
+            submitExecutor.execute(() -> anchor(credential, false));
+        }
+    }
+
+    /**
+     * Registro em massa: envia as transações em sequência de nonces sem aguardar blocos e
+     * retorna um future com o estado final de cada credencial.
+     * Com o lote on-chain habilitado, cada bloco de credenciais custa uma única transação.
+     */
+    public List<CompletableFuture<Credential>> anchorAll(List<Credential> credentials) {
+        List<CompletableFuture<Credential>> results = new ArrayList<>(credentials.size());
+        List<Credential> chunk = new ArrayList<>();
+
+        for (Credential credential : credentials) {
+            if (!inFlight.add(credential.getCredentialId())) {
+                // Já em andamento pela varredura: reporta o estado atual
+                results.add(CompletableFuture.completedFuture(credential));
+                continue;
+            }
+
+            if (!onchainBatchEnabled) {
+                results.add(CompletableFuture
+                    .supplyAsync(() -> anchor(credential, false), submitExecutor)
+                    .thenCompose(future -> future));
+                continue;
+            }
+
+            chunk.add(credential);
+            if (chunk.size() >= onchainBatchSize) {
+                results.addAll(anchorChunk(chunk));
+                chunk = new ArrayList<>();
+            }
+        }
+
+        if (!chunk.isEmpty()) {
+            results.addAll(anchorChunk(chunk));
+        }
+        return results;
+    }
+
+    /**
+     * Varredura periódica das credenciais pendentes, inclusive as que sobraram de execuções anteriores
+     */
+    @Scheduled(fixedDelayString = "${credential.anchor.drain-interval-ms:5000}",
+               initialDelayString = "${credential.anchor.drain-initial-delay-ms:10000}")
+    public void drainPending() {
+        int capacity = maxInFlight - inFlight.size();
+        if (capacity <= 0) {
+            return;
+        }
+
+        try {
+            // Só as pendentes com a espera vencida: as em back-off não ocupam a página
+            List<Credential> pending = credentialRepository.findAnchorDue(
+                STATUS_PENDING_ANCHOR, LocalDateTime.now(),
+                PageRequest.of(0, Math.min(capacity + inFlight.size(), drainBatchSize)));
+
+            for (Credential credential : pending) {
+                enqueue(credential);
+            }
+        } catch (Exception e) {
+            System.out.println("Erro ao varrer credenciais pendentes de registro: " + e.getMessage());
+        }
+    }
+
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    private CompletableFuture<Credential> anchor(Credential credential, boolean checkExisting) {
+        String credentialId = credential.getCredentialId();
+
+        try {
+            // Reenvio após falha: a transação anterior pode ter sido minerada sem recibo observado
+            boolean retry = credential.getAnchorAttempts() != null && credential.getAnchorAttempts() > 0;
+            if ((checkExisting || retry) && blockchainService.credentialExists(credentialId)) {
+                System.out.println("Credencial já registrada no contrato: " + credentialId);
+                inFlight.remove(credentialId);
+                return CompletableFuture.completedFuture(markValid(credentialId, null, true));
+            }
+
+            System.out.println("Registrando credencial no blockchain: " + credentialId);
+            CompletableFuture<TransactionReceipt> receiptFuture = blockchainService.issueCredential(
+                credentialId,
+                credential.getHolderWalletAddress(),
+                credential.getCredentialHash()
+            );
+
+            return receiptFuture.handle((receipt, throwable) -> {
+                try {
+                    if (throwable != null) {
+                        return markAttemptFailed(credentialId, unwrap(throwable).getMessage());
+                    } else if (!receipt.isStatusOK()) {
+                        return markAttemptFailed(credentialId, "TX: " + receipt.getTransactionHash() +
+                                                               " - Status: " + receipt.getStatus());
+                    }
+                    System.out.println("✅ Credencial registrada no contrato: " + credentialId +
+                                     " - TX: " + receipt.getTransactionHash());
+                    return markValid(credentialId, receipt.getTransactionHash(), true);
+                } finally {
+                    inFlight.remove(credentialId);
+                }
+            });
+        } catch (Exception e) {
+            inFlight.remove(credentialId);
+            return CompletableFuture.completedFuture(markAttemptFailed(credentialId, e.getMessage()));
+        }
+    }
+
+    /**
+     * Registra um bloco de credenciais com uma única chamada issueCredentialBatch, sem a
+     * transação de metadados por credencial. Se o lote reverter ou falhar, cada credencial
+     * segue pelo registro individual.
+     */
+    private List<CompletableFuture<Credential>> anchorChunk(List<Credential> chunk) {
+        CompletableFuture<String> batchTxHash = CompletableFuture
+            .supplyAsync(() -> sendBatch(chunk), submitExecutor)
+            .thenCompose(receiptFuture -> receiptFuture)
+            .handle((receipt, throwable) -> {
+                if (throwable == null && receipt.isStatusOK()) {
+                    System.out.println("✅ Lote de " + chunk.size() + " credenciais registrado no contrato - TX: " +
+                                     receipt.getTransactionHash());
+                    return receipt.getTransactionHash();
+                }
+                String error = throwable != null ? unwrap(throwable).getMessage()
+                    : "TX: " + receipt.getTransactionHash() + " - Status: " + receipt.getStatus();
+                System.err.println("❌ Lote de " + chunk.size() + " credenciais falhou, registrando individualmente: " + error);
+                return null;
+            });
+
+        List<CompletableFuture<Credential>> results = new ArrayList<>(chunk.size());
+        for (Credential credential : chunk) {
+            results.add(batchTxHash.thenComposeAsync(txHash -> {
+                if (txHash == null) {
+                    return anchor(credential, true);
+                }
+                try {
+                    // O lote já emitiu CredentialIssued com o hash: sem setAttribute por credencial
+                    return CompletableFuture.completedFuture(markValid(credential.getCredentialId(), txHash, false));
+                } finally {
+                    inFlight.remove(credential.getCredentialId());
+                }
+            }, submitExecutor));
+        }
+        return results;
+    }
+
+    private CompletableFuture<TransactionReceipt> sendBatch(List<Credential> chunk) {
+        try {
+            return blockchainService.issueCredentialBatch(
+                chunk.stream().map(Credential::getCredentialId).toList(),
+                chunk.stream().map(Credential::getHolderWalletAddress).toList(),
+                chunk.stream().map(Credential::getCredentialHash).toList()
+            );
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private Credential markValid(String credentialId, String txHash, boolean anchorMetadata) {
+        Credential saved = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            credentialRepository.recordAnchor(credentialId, txHash, now);
+            // UPDATE condicional: revogação durante o registro prevalece sobre o VALID
+            credentialRepository.transitionStatus(credentialId, STATUS_PENDING_ANCHOR, STATUS_VALID, now);
+            return credentialRepository.findByCredentialId(credentialId).orElse(null);
+        });
+        if (saved != null && anchorMetadata) {
+            anchorMetadata(saved);
+        }
+        return saved;
+    }
+
+    private Credential markAttemptFailed(String credentialId, String error) {
+        System.err.println("❌ Erro ao registrar credencial no blockchain: " + credentialId + " - " + error);
+
+        return transactionTemplate.execute(status ->
+            credentialRepository.findByCredentialId(credentialId).map(credential -> {
+                if (!STATUS_PENDING_ANCHOR.equals(credential.getStatus())) {
+                    return credential;
+                }
+                int attempts = (credential.getAnchorAttempts() != null ? credential.getAnchorAttempts() : 0) + 1;
+                LocalDateTime now = LocalDateTime.now();
+                // Espera cresce linearmente com o número de tentativas
+                int updated = credentialRepository.recordAnchorFailure(
+                    credentialId, STATUS_PENDING_ANCHOR, attempts >= maxAttempts ? STATUS_FAILED : STATUS_PENDING_ANCHOR,
+                    attempts, error, now.plus(Duration.ofMillis(retryDelayMs * attempts)), now);
+                if (updated == 0) {
+                    // Revogada entre a leitura e a escrita
+                    return credential;
+                }
+                return credentialRepository.findByCredentialId(credentialId).orElse(credential);
+            }).orElse(null));
+    }
+
+    /**
+     * Ancorar metadados no DIDRegistry (opcional, para did:ethr)
+     */
+    private void anchorMetadata(Credential credential) {
+        try {
+            Long validTo = credential.getExpiresAt() != null ?
+                credential.getExpiresAt().atZone(ZoneId.systemDefault()).toEpochSecond() :
+                LocalDateTime.now().plusYears(10).atZone(ZoneId.systemDefault()).toEpochSecond();
+
+            blockchainService.anchorCredentialMetadata(
+                credential.getIssuerWalletAddress(),
+                credential.getCredentialId(),
+                credential.getCredentialHash(),
+                validTo
+            ).thenAccept(receipt ->
+                System.out.println("Metadados ancorados no DIDRegistry: " + credential.getCredentialId() +
+                                 " - TX: " + receipt.getTransactionHash())
+            ).exceptionally(throwable -> {
+                System.err.println("Erro ao ancorar metadados: " + credential.getCredentialId() +
+                                 " - " + throwable.getMessage());
+                return null;
+            });
+        } catch (Exception e) {
+            // Log de erro mas não falha a operação
+            System.err.println("Erro ao ancorar metadados: " + e.getMessage());
+        }
+    }
+
+    private static Throwable unwrap(Throwable throwable) {
+        return throwable instanceof CompletionException && throwable.getCause() != null
+            ? throwable.getCause() : throwable;
+    }
+}
@@ -6,8 +6,13 @@ import br.com.idhub.custody.repository.StatusListRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.web3j.crypto.Credentials;
 import org.web3j.crypto.ECKeyPair;
 import org.web3j.protocol.core.methods.response.TransactionReceipt;
@@ -17,6 +22,15 @@ import java.security.PrivateKey;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class CredentialService {
@@ -39,59 +53,62 @@ public class CredentialService {
     @Autowired
     private BlockchainService blockchainService;
 
+    @Autowired
+    private CredentialAnchorService credentialAnchorService;
+
+    @Autowired
+    private StatusListIndexAllocator statusListIndexAllocator;
+
+    @Autowired
+    private VerificationCache verificationCache;
+
+    @Autowired
+    private CredentialSigner credentialSigner;
+
     private final ObjectMapper objectMapper = new ObjectMapper();
 
-    /**
-     * Criar e assinar uma credencial verificável
-     */
-    public String createCredential(CredentialRequest request) throws Exception {
-        // 1. Validar dados da credencial
-        validateCredentialRequest(request);
+    private static final int BATCH_SAVE_CHUNK = 500;
 
-        // 2. Gerar ID único para a credencial
-        String credentialId = generateCredentialId();
+    private static final String LEGACY_SIMULATED_SIGNATURE = ".simulated_signature";
 
-        // 3. Obter credenciais da wallet do emissor
-        Credentials issuerCredentials = walletService.getWalletCredentialsWithMasterPassword(request.getIssuerWalletAddress());
+    @Value("${credential.batch.sign-threads:0}")
+    private int batchSignThreads;
 
-        // 4. Gerar payload da credencial
-        Map<String, Object> credentialPayload = buildCredentialPayload(request, credentialId);
+    private ExecutorService batchSignExecutor;
 
-        // 5. Assinar com JWT/JWS
-        String jwsToken = signCredential(credentialPayload, issuerCredentials);
+    @PostConstruct
+    public void startBatchExecutor() {
+        int threads = batchSignThreads > 0 ? batchSignThreads : Runtime.getRuntime().availableProcessors();
+        batchSignExecutor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "credential-batch-sign");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
 
-        // 6. Criar entidade Credential
-        Credential credential = new Credential(
-            credentialId,
-            request.getIssuerDid(),
-            request.getHolderDid(),
-            objectMapper.writeValueAsString(credentialPayload),
-            request.getStatusListId(),
-            getNextStatusListIndex(request.getStatusListId())
-        );
-        credential.setJwsToken(jwsToken);
-        credential.setIssuerWalletAddress(request.getIssuerWalletAddress());
-        credential.setExpiresAt(request.getExpiresAt());
+    @PreDestroy
+    public void stopBatchExecutor() {
+        batchSignExecutor.shutdownNow();
+    }
+
+    /**
+     * Criar e assinar uma credencial verificável
+     */
+    public String createCredential(CredentialRequest request) throws Exception {
+        Credential credential = prepareCredential(request, allocateStatusListSlot(request));
+        String credentialId = credential.getCredentialId();
 
         // Registrar credencial no blockchain ANTES de salvar no banco
         try {
-            String credentialData = objectMapper.writeValueAsString(credentialPayload);
-            String credentialHash = calculateHash(credentialData);
-
-            // ✅ VALIDAR PARÂMETROS OBRIGATÓRIOS
-            if (request.getHolderWalletAddress() == null || request.getHolderWalletAddress().trim().isEmpty()) {
-                throw new RuntimeException("HolderWalletAddress é obrigatório para registrar credencial no blockchain");
-            }
-
             System.out.println("Registrando credencial no blockchain: " + credentialId);
             System.out.println("Subject: " + request.getHolderWalletAddress());
-            System.out.println("Hash: " + credentialHash);
+            System.out.println("Hash: " + credential.getCredentialHash());
 
             // Aguardar confirmação da transação blockchain
             TransactionReceipt receipt = blockchainService.issueCredential(
                 credentialId,
                 request.getHolderWalletAddress(),
-                credentialHash
+                credential.getCredentialHash()
             ).get();
 
             if (!receipt.isStatusOK()) {
@@ -103,6 +120,8 @@ public class CredentialService {
                 System.out.println("✅ Credencial registrada no contrato: " + credentialId +
                                  " - TX: " + receipt.getTransactionHash());
             }
+            credential.setAnchorTxHash(receipt.getTransactionHash());
+            credential.setAnchoredAt(LocalDateTime.now());
         } catch (Exception e) {
             System.err.println("❌ ERRO CRÍTICO ao registrar credencial no blockchain: " + e.getMessage());
             e.printStackTrace();
@@ -113,8 +132,6 @@ public class CredentialService {
 
         // Ancorar metadados no DIDRegistry (opcional, para did:ethr)
         try {
-            String credentialData = objectMapper.writeValueAsString(credentialPayload);
-            String metadataHash = calculateHash(credentialData);
             Long validTo = request.getExpiresAt() != null ?
                 request.getExpiresAt().atZone(java.time.ZoneId.systemDefault()).toEpochSecond() :
                 LocalDateTime.now().plusYears(10).atZone(java.time.ZoneId.systemDefault()).toEpochSecond();
@@ -122,7 +139,7 @@ public class CredentialService {
             blockchainService.anchorCredentialMetadata(
                 request.getIssuerWalletAddress(),
                 credentialId,
-                metadataHash,
+                savedCredential.getCredentialHash(),
                 validTo
             ).thenAccept(receipt -> {
                 // Log de sucesso
@@ -139,78 +156,385 @@ public class CredentialService {
             System.err.println("Erro ao ancorar metadados: " + e.getMessage());
         }
 
-        return jwsToken;
+        return credential.getJwsToken();
+    }
+
+    /**
+     * Emissão assíncrona: assina e persiste a credencial em PENDING_ANCHOR e retorna
+     * sem aguardar o bloco; o registro on-chain segue em segundo plano
+     */
+    public Credential submitCredential(CredentialRequest request) throws Exception {
+        Credential credential = prepareCredential(request, allocateStatusListSlot(request));
+        credential.setStatus(CredentialAnchorService.STATUS_PENDING_ANCHOR);
+
+        Credential savedCredential = credentialRepository.save(credential);
+        credentialAnchorService.enqueue(savedCredential);
+        return savedCredential;
+    }
+
+    /**
+     * Emissão em massa: assina em paralelo, reserva os índices de cada StatusList de uma vez,
+     * persiste em PENDING_ANCHOR e registra no contrato com nonces em sequência.
+     * Cada item gera uma linha de resultado em resultSink assim que seu registro termina.
+     */
+    public void issueCredentialBatch(List<CredentialRequest> requests, Consumer<Map<String, Object>> resultSink) {
+        Object sinkLock = new Object();
+        Consumer<Map<String, Object>> sink = line -> {
+            synchronized (sinkLock) {
+                resultSink.accept(line);
+            }
+        };
+
+        // 1. Uma reserva de índices por StatusList para todo o lote
+        Map<String, Iterator<StatusListIndexAllocator.Slot>> slotsByList = new HashMap<>();
+        requests.stream()
+            .map(CredentialRequest::getStatusListId)
+            .filter(listId -> listId != null && !listId.trim().isEmpty())
+            .collect(Collectors.groupingBy(listId -> listId, Collectors.counting()))
+            .forEach((listId, count) ->
+                slotsByList.put(listId, statusListIndexAllocator.allocate(listId, count.intValue()).iterator()));
+
+        // 2. Assinatura em paralelo
+        List<CompletableFuture<Credential>> prepared = new ArrayList<>(requests.size());
+        for (CredentialRequest request : requests) {
+            Iterator<StatusListIndexAllocator.Slot> slots = slotsByList.get(request.getStatusListId());
+            StatusListIndexAllocator.Slot slot = slots != null ? slots.next() : null;
+
+            prepared.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return prepareCredential(request, slot);
+                } catch (Exception e) {
+                    throw new CompletionException(e);
+                }
+            }, batchSignExecutor));
+        }
+
+        // 3. Persistir as credenciais assinadas como PENDING_ANCHOR
+        Map<String, Integer> positionById = new HashMap<>();
+        List<Credential> signed = new ArrayList<>(requests.size());
+        for (int i = 0; i < prepared.size(); i++) {
+            try {
+                Credential credential = prepared.get(i).join();
+                credential.setStatus(CredentialAnchorService.STATUS_PENDING_ANCHOR);
+                positionById.put(credential.getCredentialId(), i);
+                signed.add(credential);
+            } catch (CompletionException e) {
+                sink.accept(batchErrorLine(i, null, e.getCause() != null ? e.getCause() : e));
+            }
+        }
+
+        List<Credential> saved = new ArrayList<>(signed.size());
+        for (int from = 0; from < signed.size(); from += BATCH_SAVE_CHUNK) {
+            List<Credential> chunk = signed.subList(from, Math.min(from + BATCH_SAVE_CHUNK, signed.size()));
+            try {
+                saved.addAll(credentialRepository.saveAll(chunk));
+            } catch (Exception e) {
+                chunk.forEach(credential -> sink.accept(
+                    batchErrorLine(positionById.get(credential.getCredentialId()), credential.getCredentialId(), e)));
+            }
+        }
+
+        // 4. Registro on-chain, com uma linha por credencial conforme os recibos chegam
+        List<CompletableFuture<Credential>> anchored = credentialAnchorService.anchorAll(saved);
+        List<CompletableFuture<Void>> lines = new ArrayList<>(anchored.size());
+        for (int i = 0; i < anchored.size(); i++) {
+            Credential submitted = saved.get(i);
+            lines.add(anchored.get(i).handle((credential, throwable) -> {
+                Credential result = credential != null ? credential : submitted;
+                if (throwable != null) {
+                    sink.accept(batchErrorLine(positionById.get(result.getCredentialId()), result.getCredentialId(), throwable));
+                } else {
+                    sink.accept(batchResultLine(positionById.get(result.getCredentialId()), result));
+                }
+                return null;
+            }));
+        }
+
+        CompletableFuture.allOf(lines.toArray(new CompletableFuture<?>[0])).join();
+    }
+
+    private Map<String, Object> batchResultLine(Integer position, Credential credential) {
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("index", position);
+        line.put("credentialId", credential.getCredentialId());
+        // Só o registro confirmado é sucesso; pending separa "aceita, aguardando nova tentativa"
+        line.put("success", CredentialAnchorService.STATUS_VALID.equals(credential.getStatus()));
+        line.put("pending", CredentialAnchorService.STATUS_PENDING_ANCHOR.equals(credential.getStatus()));
+        line.put("status", credential.getStatus());
+        line.put("statusListIndex", credential.getStatusListIndex());
+        line.put("anchorTxHash", credential.getAnchorTxHash());
+        line.put("anchorError", credential.getAnchorError());
+        line.put("jwt", credential.getJwsToken());
+        return line;
+    }
+
+    private Map<String, Object> batchErrorLine(Integer position, String credentialId, Throwable error) {
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("index", position);
+        line.put("credentialId", credentialId);
+        line.put("success", false);
+        line.put("error", error.getMessage());
+        return line;
+    }
+
+    /**
+     * Validar, montar e assinar a credencial, sem persistir nem registrar on-chain
+     */
+    private Credential prepareCredential(CredentialRequest request, StatusListIndexAllocator.Slot slot) throws Exception {
+        // 1. Validar dados da credencial
+        validateCredentialRequest(request);
+
+        // ✅ VALIDAR PARÂMETROS OBRIGATÓRIOS
+        if (request.getHolderWalletAddress() == null || request.getHolderWalletAddress().trim().isEmpty()) {
+            throw new RuntimeException("HolderWalletAddress é obrigatório para registrar credencial no blockchain");
+        }
+
+        // 2. Gerar ID único para a credencial
+        String credentialId = generateCredentialId();
+
+        // 3. Obter credenciais da wallet do emissor
+        Credentials issuerCredentials = walletService.getWalletCredentialsWithMasterPassword(request.getIssuerWalletAddress());
+
+        // 4. Gerar payload da credencial
+        Map<String, Object> credentialPayload = buildCredentialPayload(request, credentialId, slot);
+
+        // 5. Assinar com JWT/JWS
+        String jwsToken = signCredential(credentialPayload, issuerCredentials);
+
+        // 6. Criar entidade Credential
+        String credentialData = objectMapper.writeValueAsString(credentialPayload);
+        Credential credential = new Credential(
+            credentialId,
+            request.getIssuerDid(),
+            request.getHolderDid(),
+            credentialData,
+            slot.statusListId(),
+            slot.index()
+        );
+        credential.setJwsToken(jwsToken);
+        credential.setIssuerWalletAddress(request.getIssuerWalletAddress());
+        credential.setHolderWalletAddress(request.getHolderWalletAddress());
+        credential.setCredentialHash(calculateHash(credentialData));
+        credential.setExpiresAt(request.getExpiresAt());
+        return credential;
     }
 
     /**
      * Verificar uma credencial
      */
     public CredentialVerification verifyCredential(String jwsToken) throws Exception {
+        // Mesmo token verificado há pouco e StatusList sem mudança no bit: resultado em memória
+        String cacheKey = VerificationCache.key(jwsToken);
+        CredentialVerification cached = verificationCache.get(cacheKey);
+        if (cached != null) {
+            return cached;
+        }
+
         CredentialVerification verification = new CredentialVerification(false, "");
 
         try {
             // 1. Decodificar JWT/JWS
             Map<String, Object> claims = decodeJwsToken(jwsToken);
+            Credential credential = credentialRepository.findByCredentialId((String) claims.get("jti")).orElse(null);
 
-            // 2. Extrair dados da credencial
-            String credentialId = (String) claims.get("jti");
-            String issuerDid = (String) claims.get("iss");
-            String holderDid = (String) claims.get("sub");
+            evaluateCredential(verification, jwsToken, cacheKey, claims, credential, statusListService::getStatusSnapshot);
+        } catch (Exception e) {
+            verification.addError("Erro na verificação: " + e.getMessage());
+        }
 
-            verification.setCredentialId(credentialId);
-            verification.setIssuerDid(issuerDid);
-            verification.setHolderDid(holderDid);
+        return verification;
+    }
 
-            // 3. Verificar se existe no banco
-            Optional<Credential> credentialOpt = credentialRepository.findByCredentialId(credentialId);
-            if (credentialOpt.isEmpty()) {
-                verification.addError("Credencial não encontrada no banco");
-                return verification;
+    /**
+     * Verificação em massa: decodifica em paralelo, busca as credenciais com uma consulta IN por bloco,
+     * carrega o bitstring de cada StatusList uma única vez e avalia os tokens em paralelo.
+     * Tokens repetidos são verificados uma vez; cada item gera uma linha em resultSink.
+     */
+    public void verifyCredentialBatch(List<String> jwsTokens, Consumer<Map<String, Object>> resultSink) {
+        Object sinkLock = new Object();
+        Consumer<Map<String, Object>> sink = line -> {
+            synchronized (sinkLock) {
+                resultSink.accept(line);
             }
+        };
+
+        // 1. Deduplicar por hash do token; resultados em cache saem direto
+        Map<String, List<Integer>> positionsByKey = new LinkedHashMap<>();
+        Map<String, String> tokenByKey = new HashMap<>();
+        for (int i = 0; i < jwsTokens.size(); i++) {
+            String token = jwsTokens.get(i) != null ? jwsTokens.get(i).trim() : "";
+            String cacheKey = VerificationCache.key(token);
+            positionsByKey.computeIfAbsent(cacheKey, key -> new ArrayList<>()).add(i);
+            tokenByKey.putIfAbsent(cacheKey, token);
+        }
 
-            Credential credential = credentialOpt.get();
-            verification.setStatus(credential.getStatus());
-            verification.setIssuedAt(credential.getIssuedAt());
-            verification.setExpiresAt(credential.getExpiresAt());
-
-            // 4. Verificar assinatura (simplificado - em produção usar biblioteca JWT)
-            if (verifySignature(jwsToken, credential)) {
-                verification.setValid(true);
-            } else {
-                verification.addError("Assinatura inválida");
-            }
+        Map<String, Map<String, Object>> claimsByKey = new ConcurrentHashMap<>();
+        List<CompletableFuture<Void>> decoded = new ArrayList<>(positionsByKey.size());
+        for (String cacheKey : positionsByKey.keySet()) {
+            decoded.add(CompletableFuture.runAsync(() -> {
+                CredentialVerification cached = verificationCache.get(cacheKey);
+                if (cached != null) {
+                    emitVerification(sink, positionsByKey.get(cacheKey), cached);
+                    return;
+                }
+                try {
+                    claimsByKey.put(cacheKey, decodeJwsToken(tokenByKey.get(cacheKey)));
+                } catch (Exception e) {
+                    CredentialVerification verification = new CredentialVerification(false, "");
+                    verification.addError("Erro na verificação: " + e.getMessage());
+                    emitVerification(sink, positionsByKey.get(cacheKey), verification);
+                }
+            }, batchSignExecutor));
+        }
+        CompletableFuture.allOf(decoded.toArray(new CompletableFuture<?>[0])).join();
+
+        // 2. Credenciais em blocos de consultas IN
+        List<String> credentialIds = claimsByKey.values().stream()
+            .map(claims -> (String) claims.get("jti"))
+            .filter(Objects::nonNull)
+            .distinct()
+            .toList();
+        Map<String, Credential> credentialsById = new HashMap<>();
+        for (int from = 0; from < credentialIds.size(); from += BATCH_SAVE_CHUNK) {
+            credentialRepository.findByCredentialIdIn(
+                credentialIds.subList(from, Math.min(from + BATCH_SAVE_CHUNK, credentialIds.size()))
+            ).forEach(credential -> credentialsById.put(credential.getCredentialId(), credential));
+        }
 
-            // 5. Verificar status de revogação
-            if ("REVOKED".equals(credential.getStatus())) {
-                verification.setValid(false);
-                verification.addError("Credencial revogada");
-            } else {
-                // Verificar StatusList on-chain
+        // 3. Um snapshot por StatusList; a falha de uma lista vira aviso nos seus tokens
+        Map<String, Object> snapshotsByList = new HashMap<>();
+        credentialsById.values().stream()
+            .map(Credential::getStatusListId)
+            .filter(Objects::nonNull)
+            .distinct()
+            .forEach(listId -> {
                 try {
-                    boolean isRevoked = statusListService.isCredentialRevoked(
-                        credential.getStatusListId(),
-                        credential.getStatusListIndex()
-                    );
-                    if (isRevoked) {
-                        verification.setValid(false);
-                        verification.addError("Credencial revogada na StatusList");
-                    }
+                    snapshotsByList.put(listId, statusListService.getStatusSnapshot(listId));
                 } catch (Exception e) {
-                    verification.addWarning("Não foi possível verificar StatusList: " + e.getMessage());
+                    snapshotsByList.put(listId, e);
                 }
+            });
+        Function<String, StatusListCache.Snapshot> statusSnapshots = listId -> {
+            Object snapshot = snapshotsByList.get(listId);
+            if (snapshot instanceof StatusListCache.Snapshot loaded) {
+                return loaded;
+            }
+            throw snapshot instanceof RuntimeException e ? e : new RuntimeException("StatusList não encontrada: " + listId);
+        };
+
+        // 4. Avaliação (assinatura, status, expiração) em paralelo
+        List<CompletableFuture<Void>> evaluated = new ArrayList<>(claimsByKey.size());
+        claimsByKey.forEach((cacheKey, claims) -> evaluated.add(CompletableFuture.runAsync(() -> {
+            CredentialVerification verification = new CredentialVerification(false, "");
+            try {
+                evaluateCredential(verification, tokenByKey.get(cacheKey), cacheKey, claims,
+                                   credentialsById.get((String) claims.get("jti")), statusSnapshots);
+            } catch (Exception e) {
+                verification.addError("Erro na verificação: " + e.getMessage());
+            }
+            emitVerification(sink, positionsByKey.get(cacheKey), verification);
+        }, batchSignExecutor)));
+        CompletableFuture.allOf(evaluated.toArray(new CompletableFuture<?>[0])).join();
+    }
+
+    private void emitVerification(Consumer<Map<String, Object>> sink, List<Integer> positions,
+                                  CredentialVerification verification) {
+        for (Integer position : positions) {
+            Map<String, Object> line = new LinkedHashMap<>();
+            line.put("index", position);
+            line.put("credentialId", verification.getCredentialId());
+            line.put("valid", verification.isValid());
+            line.put("status", verification.getStatus());
+            line.put("issuerDid", verification.getIssuerDid());
+            line.put("holderDid", verification.getHolderDid());
+            line.put("expiresAt", verification.getExpiresAt() != null ? verification.getExpiresAt().toString() : null);
+            line.put("errors", verification.getErrors() != null ? verification.getErrors() : List.of());
+            line.put("warnings", verification.getWarnings() != null ? verification.getWarnings() : List.of());
+            sink.accept(line);
+        }
+    }
+
+    /**
+     * Passos da verificação após decodificar o token; credential nulo quando não existe no banco
+     */
+    private void evaluateCredential(CredentialVerification verification, String jwsToken, String cacheKey,
+                                    Map<String, Object> claims, Credential credential,
+                                    Function<String, StatusListCache.Snapshot> statusSnapshots) throws Exception {
+        // 2. Extrair dados da credencial
+        String credentialId = (String) claims.get("jti");
+        String issuerDid = (String) claims.get("iss");
+        String holderDid = (String) claims.get("sub");
+
+        verification.setCredentialId(credentialId);
+        verification.setIssuerDid(issuerDid);
+        verification.setHolderDid(holderDid);
+
+        // 3. Verificar se existe no banco
+        if (credential == null) {
+            verification.addError("Credencial não encontrada no banco");
+            return;
+        }
+
+        verification.setStatus(credential.getStatus());
+        verification.setIssuedAt(credential.getIssuedAt());
+        verification.setExpiresAt(credential.getExpiresAt());
+
+        // Emissão assíncrona: a credencial só vale depois de registrada no contrato
+        if (CredentialAnchorService.STATUS_FAILED.equals(credential.getStatus())) {
+            verification.addError("Registro da credencial no blockchain falhou");
+            return;
+        }
+        boolean pendingAnchor = CredentialAnchorService.STATUS_PENDING_ANCHOR.equals(credential.getStatus());
+        if (pendingAnchor) {
+            verification.addWarning("Credencial aguardando registro no blockchain");
+        }
+
+        // 4. Verificar assinatura ES256K com a chave pública do emissor
+        if (verifySignature(jwsToken, credential)) {
+            // Ainda não registrada no contrato: assinatura confere, mas não é válida
+            verification.setValid(!pendingAnchor);
+            if (jwsToken.endsWith(LEGACY_SIMULATED_SIGNATURE)) {
+                verification.addWarning("Credencial emitida com assinatura simulada; reemitir com ES256K");
             }
+        } else {
+            verification.addError("Assinatura inválida");
+        }
 
-            // 6. Verificar expiração
-            if (credential.getExpiresAt() != null && credential.getExpiresAt().isBefore(LocalDateTime.now())) {
-                verification.setValid(false);
-                verification.addError("Credencial expirada");
+        // 5. Verificar status de revogação
+        StatusListCache.Snapshot statusSnapshot = null;
+        boolean isRevoked = false;
+        if ("REVOKED".equals(credential.getStatus())) {
+            verification.setValid(false);
+            verification.addError("Credencial revogada");
+        } else {
+            // Verificar StatusList on-chain
+            try {
+                statusSnapshot = statusSnapshots.apply(credential.getStatusListId());
+                isRevoked = statusSnapshot.isRevoked(credential.getStatusListIndex());
+                if (isRevoked) {
+                    verification.setValid(false);
+                    verification.addError("Credencial revogada na StatusList");
+                }
+            } catch (Exception e) {
+                verification.addWarning("Não foi possível verificar StatusList: " + e.getMessage());
             }
+        }
 
-        } catch (Exception e) {
-            verification.addError("Erro na verificação: " + e.getMessage());
+        // 6. Verificar expiração
+        if (credential.getExpiresAt() != null && credential.getExpiresAt().isBefore(LocalDateTime.now())) {
+            verification.setValid(false);
+            verification.addError("Credencial expirada");
         }
 
-        return verification;
+        // Só resultados que não dependem de estado transitório vão para o cache
+        if (!CredentialAnchorService.STATUS_PENDING_ANCHOR.equals(credential.getStatus()) &&
+            (verification.getWarnings() == null || verification.getWarnings().isEmpty())) {
+            verificationCache.put(cacheKey, verification,
+                statusSnapshot != null ? credential.getStatusListId() : null,
+                credential.getStatusListIndex(),
+                statusSnapshot != null ? statusSnapshot.version() : null,
+                isRevoked, credential.getExpiresAt());
+        }
     }
 
     /**
@@ -225,6 +549,7 @@ public class CredentialService {
         Credential credential = credentialOpt.get();
         credential.setStatus("REVOKED");
         credentialRepository.save(credential);
+        verificationCache.invalidateCredential(credentialId);
 
         // Atualizar StatusList on-chain
         statusListService.revokeCredentialInList(
@@ -252,24 +577,41 @@ public class CredentialService {
 
     // Métodos de consulta para Credential
 
-    public List<Credential> getAllCredentials() {
-        return credentialRepository.findAll();
-    }
-
-    public Optional<Credential> getCredentialById(String credentialId) {
-        return credentialRepository.findByCredentialId(credentialId);
-    }
+    /**
+     * Filtro das listagens de credenciais
+     */
+    public enum CredentialFilter { ALL, ISSUER, HOLDER, STATUS }
 
-    public List<Credential> getCredentialsByIssuer(String issuerDid) {
-        return credentialRepository.findByIssuerDid(issuerDid);
+    /**
+     * Página de credenciais com id maior que afterId, em ordem de id
+     */
+    public List<CredentialSummary> listCredentials(CredentialFilter filter, String value, long afterId, int limit) {
+        PageRequest page = PageRequest.of(0, limit);
+        return switch (filter) {
+            case ALL -> credentialRepository.findByIdGreaterThanOrderByIdAsc(afterId, page);
+            case ISSUER -> credentialRepository.findByIssuerDidAndIdGreaterThanOrderByIdAsc(value, afterId, page);
+            case HOLDER -> credentialRepository.findByHolderDidAndIdGreaterThanOrderByIdAsc(value, afterId, page);
+            case STATUS -> credentialRepository.findByStatusAndIdGreaterThanOrderByIdAsc(value, afterId, page);
+        };
     }
 
-    public List<Credential> getCredentialsByHolder(String holderDid) {
-        return credentialRepository.findByHolderDid(holderDid);
+    /**
+     * Percorre todas as credenciais com id maior que afterId sem materializar a lista
+     */
+    @Transactional(readOnly = true)
+    public void streamCredentials(CredentialFilter filter, String value, long afterId, Consumer<CredentialSummary> sink) {
+        try (Stream<CredentialSummary> credentials = switch (filter) {
+            case ALL -> credentialRepository.streamByIdGreaterThanOrderByIdAsc(afterId);
+            case ISSUER -> credentialRepository.streamByIssuerDidAndIdGreaterThanOrderByIdAsc(value, afterId);
+            case HOLDER -> credentialRepository.streamByHolderDidAndIdGreaterThanOrderByIdAsc(value, afterId);
+            case STATUS -> credentialRepository.streamByStatusAndIdGreaterThanOrderByIdAsc(value, afterId);
+        }) {
+            credentials.forEach(sink);
+        }
     }
 
-    public List<Credential> getCredentialsByStatus(String status) {
-        return credentialRepository.findByStatus(status);
+    public Optional<Credential> getCredentialById(String credentialId) {
+        return credentialRepository.findByCredentialId(credentialId);
     }
 
     // Métodos de consulta para StatusList
@@ -278,8 +620,8 @@ public class CredentialService {
         return statusListRepository.findByListId(listId);
     }
 
-    public List<StatusList> getStatusListsByIssuer(String issuer) {
-        return statusListRepository.findByIssuer(issuer);
+    public List<StatusListSummary> getStatusListsByIssuer(String issuer) {
+        return statusListRepository.findSummariesByIssuerOrderByListIdAscVersionDesc(issuer);
     }
 
     public List<StatusList> getStatusListsByPurpose(String purpose) {
@@ -311,7 +653,8 @@ public class CredentialService {
         return "urn:uuid:" + UUID.randomUUID().toString();
     }
 
-    private Map<String, Object> buildCredentialPayload(CredentialRequest request, String credentialId) {
+    private Map<String, Object> buildCredentialPayload(CredentialRequest request, String credentialId,
+                                                       StatusListIndexAllocator.Slot slot) {
         Map<String, Object> payload = new HashMap<>();
 
         // Header padrão
@@ -332,11 +675,11 @@ public class CredentialService {
             "type", Arrays.asList("VerifiableCredential", request.getCredentialType()),
             "credentialSubject", request.getCredentialSubject(),
             "credentialStatus", Map.of(
-                "id", "https://idbra.example/status/" + request.getStatusListId() + ".json#" + getNextStatusListIndex(request.getStatusListId()),
+                "id", "https://idbra.example/status/" + slot.statusListId() + ".json#" + slot.index(),
                 "type", "StatusList2021Entry",
                 "statusPurpose", "revocation",
-                "statusListIndex", getNextStatusListIndex(request.getStatusListId()),
-                "statusListCredential", "https://idbra.example/status/" + request.getStatusListId() + ".json"
+                "statusListIndex", slot.index(),
+                "statusListCredential", "https://idbra.example/status/" + slot.statusListId() + ".json"
             )
         ));
 
@@ -344,18 +687,9 @@ public class CredentialService {
     }
 
     private String signCredential(Map<String, Object> payload, Credentials issuerCredentials) throws Exception {
-        // Obter chave privada
-        String privateKeyHex = issuerCredentials.getEcKeyPair().getPrivateKey().toString(16);
-        if (!privateKeyHex.startsWith("0x")) {
-            privateKeyHex = "0x" + privateKeyHex;
-        }
-
-        // Para simplificar, vamos usar uma assinatura simulada por enquanto
-        // TODO: Implementar assinatura JWT real com ES256
-        return "eyJhbGciOiJFUzI1NiIsInR5cCI6IkpXVCJ9." +
-               java.util.Base64.getUrlEncoder().withoutPadding().encodeToString(
-                   objectMapper.writeValueAsBytes(payload)
-               ) + ".simulated_signature";
+        // JWS ES256K com a chave secp256k1 da wallet do emissor
+        String kid = payload.get("iss") + "#controller";
+        return credentialSigner.sign(payload, kid, issuerCredentials.getEcKeyPair());
     }
 
     private Map<String, Object> decodeJwsToken(String jwsToken) throws Exception {
@@ -379,18 +713,17 @@ public class CredentialService {
     }
 
     private boolean verifySignature(String jwsToken, Credential credential) {
-        // TODO: Implementar verificação de assinatura adequada
-        return true; // Simulado
+        if (jwsToken.endsWith(LEGACY_SIMULATED_SIGNATURE)) {
+            // Emitida antes da assinatura real: aceita só se for exatamente o token gravado
+            return jwsToken.equals(credential.getJwsToken());
+        }
+        return credentialSigner.verify(jwsToken, credential.getIssuerWalletAddress());
     }
 
-    private Integer getNextStatusListIndex(String statusListId) {
-        try {
-            Long count = statusListRepository.countByListId(statusListId);
-            return count.intValue();
-        } catch (Exception e) {
-            // Se não conseguir contar, retorna 0
-            return 0;
-        }
+    private StatusListIndexAllocator.Slot allocateStatusListSlot(CredentialRequest request) {
+        // Validar antes de consumir um índice
+        validateCredentialRequest(request);
+        return statusListIndexAllocator.allocate(request.getStatusListId());
     }
 
     private String calculateHash(String data) throws Exception {
@@ -0,0 +1,148 @@
+package br.com.idhub.custody.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.bouncycastle.crypto.params.ECDomainParameters;
+import org.bouncycastle.crypto.params.ECPublicKeyParameters;
+import org.bouncycastle.crypto.signers.ECDSASigner;
+import org.springframework.stereotype.Component;
+import org.web3j.crypto.ECDSASignature;
+import org.web3j.crypto.ECKeyPair;
+import org.web3j.crypto.Hash;
+import org.web3j.crypto.Keys;
+import org.web3j.crypto.Sign;
+import org.web3j.utils.Numeric;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Assinatura e verificação JWS ES256K (ECDSA secp256k1 sobre SHA-256, assinatura r||s de 64 bytes,
+ * s baixo obrigatório).
+ * A verificação não usa a chave privada: a chave pública do emissor é recuperada da primeira
+ * assinatura válida para o endereço da wallet e fica em cache por endereço.
+ */
+@Component
+public class CredentialSigner {
+
+    public static final String ALGORITHM = "ES256K";
+
+    private static final ECDomainParameters CURVE = new ECDomainParameters(
+        Sign.CURVE_PARAMS.getCurve(), Sign.CURVE_PARAMS.getG(), Sign.CURVE_PARAMS.getN(), Sign.CURVE_PARAMS.getH());
+
+    private static final BigInteger HALF_N = Sign.CURVE_PARAMS.getN().shiftRight(1);
+
+    private static final Base64.Encoder BASE64URL = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder BASE64URL_DECODER = Base64.getUrlDecoder();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    // Chave pública por endereço da wallet emissora (minúsculo, com 0x)
+    private final ConcurrentHashMap<String, ECPublicKeyParameters> issuerKeys = new ConcurrentHashMap<>();
+
+    /**
+     * Gera o JWS compacto do payload assinado com a chave do emissor
+     */
+    public String sign(Map<String, Object> payload, String kid, ECKeyPair keyPair) throws Exception {
+        Map<String, Object> header = new LinkedHashMap<>();
+        header.put("alg", ALGORITHM);
+        header.put("typ", "JWT");
+        if (kid != null) {
+            header.put("kid", kid);
+        }
+
+        String signingInput = BASE64URL.encodeToString(objectMapper.writeValueAsBytes(header)) + "." +
+                              BASE64URL.encodeToString(objectMapper.writeValueAsBytes(payload));
+
+        // ECKeyPair.sign já devolve a assinatura canônica (s baixo)
+        ECDSASignature signature = keyPair.sign(Hash.sha256(signingInput.getBytes(StandardCharsets.US_ASCII)));
+        byte[] joseSignature = new byte[64];
+        System.arraycopy(Numeric.toBytesPadded(signature.r, 32), 0, joseSignature, 0, 32);
+        System.arraycopy(Numeric.toBytesPadded(signature.s, 32), 0, joseSignature, 32, 32);
+
+        return signingInput + "." + BASE64URL.encodeToString(joseSignature);
+    }
+
+    /**
+     * Verifica um JWS ES256K contra o endereço da wallet emissora
+     */
+    public boolean verify(String jwsToken, String issuerWalletAddress) {
+        if (jwsToken == null || issuerWalletAddress == null) {
+            return false;
+        }
+
+        try {
+            int firstDot = jwsToken.indexOf('.');
+            int lastDot = jwsToken.lastIndexOf('.');
+            if (firstDot <= 0 || lastDot == firstDot) {
+                return false;
+            }
+
+            JsonNode header = objectMapper.readTree(BASE64URL_DECODER.decode(jwsToken.substring(0, firstDot)));
+            if (!ALGORITHM.equals(header.path("alg").asText())) {
+                return false;
+            }
+
+            byte[] joseSignature = BASE64URL_DECODER.decode(jwsToken.substring(lastDot + 1));
+            if (joseSignature.length != 64) {
+                return false;
+            }
+            BigInteger r = new BigInteger(1, java.util.Arrays.copyOfRange(joseSignature, 0, 32));
+            BigInteger s = new BigInteger(1, java.util.Arrays.copyOfRange(joseSignature, 32, 64));
+            // Só a forma canônica (s baixo): (r, n - s) também verifica e tornaria o token maleável
+            if (s.compareTo(HALF_N) > 0) {
+                return false;
+            }
+            byte[] hash = Hash.sha256(jwsToken.substring(0, lastDot).getBytes(StandardCharsets.US_ASCII));
+
+            String address = normalize(issuerWalletAddress);
+            ECPublicKeyParameters publicKey = issuerKeys.get(address);
+            if (publicKey != null) {
+                return verify(publicKey, hash, r, s);
+            }
+            return recoverAndCache(address, hash, r, s);
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    public int getCachedKeyCount() {
+        return issuerKeys.size();
+    }
+
+    private boolean verify(ECPublicKeyParameters publicKey, byte[] hash, BigInteger r, BigInteger s) {
+        ECDSASigner signer = new ECDSASigner();
+        signer.init(false, publicKey);
+        return signer.verifySignature(hash, r, s);
+    }
+
+    /**
+     * Primeira verificação do emissor: recupera a chave pública da assinatura e confere o endereço
+     */
+    private boolean recoverAndCache(String address, byte[] hash, BigInteger r, BigInteger s) {
+        ECDSASignature signature = new ECDSASignature(r, s);
+        for (int recId = 0; recId < 4; recId++) {
+            BigInteger publicKey = Sign.recoverFromSignature(recId, signature, hash);
+            if (publicKey != null && address.equals(Numeric.prependHexPrefix(Keys.getAddress(publicKey)))) {
+                issuerKeys.putIfAbsent(address, toPublicKeyParameters(publicKey));
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static ECPublicKeyParameters toPublicKeyParameters(BigInteger publicKey) {
+        byte[] encoded = new byte[65];
+        encoded[0] = 0x04;
+        System.arraycopy(Numeric.toBytesPadded(publicKey, 64), 0, encoded, 1, 64);
+        return new ECPublicKeyParameters(CURVE.getCurve().decodePoint(encoded), CURVE);
+    }
+
+    private static String normalize(String address) {
+        return Numeric.prependHexPrefix(Numeric.cleanHexPrefix(address)).toLowerCase();
+    }
+}
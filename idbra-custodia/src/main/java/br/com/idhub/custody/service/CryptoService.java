@@ -1,16 +1,18 @@
 package br.com.idhub.custody.service;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import java.security.SecureRandom;
+import java.util.Arrays;
 import java.util.Base64;
+import javax.crypto.AEADBadTagException;
 import javax.crypto.Cipher;
 import javax.crypto.SecretKey;
 import javax.crypto.SecretKeyFactory;
 import javax.crypto.spec.PBEKeySpec;
 import javax.crypto.spec.SecretKeySpec;
 import javax.crypto.spec.GCMParameterSpec;
-import java.security.spec.KeySpec;
 
 @Service
 public class CryptoService {
@@ -27,6 +29,9 @@ public class CryptoService {
     @Value("${crypto.iterations:65536}")
     private int iterations;
 
+    @Autowired
+    private DerivedKeyCache derivedKeyCache;
+
     private final SecureRandom secureRandom = new SecureRandom();
 
     /**
@@ -59,6 +64,13 @@ public class CryptoService {
      * Descriptografa uma chave privada
      */
     public String decryptPrivateKey(String encryptedData, String password) throws Exception {
+        return decryptPrivateKey(null, encryptedData, password);
+    }
+
+    /**
+     * Descriptografa a chave privada de uma carteira, reaproveitando a chave AES derivada em cache
+     */
+    public String decryptPrivateKey(String walletAddress, String encryptedData, String password) throws Exception {
         byte[] combined = Base64.getDecoder().decode(encryptedData);
 
         // Extrair IV, dados criptografados e salt
@@ -79,12 +91,40 @@ public class CryptoService {
 
         String salt = new String(saltBytes);
 
+        // O cache é indexado também pela senha: senha diferente nunca reaproveita a chave de outra
+        byte[] cachedKey = derivedKeyCache.get(walletAddress, salt, password);
+        if (cachedKey != null) {
+            try {
+                return decrypt(cachedKey, iv, encryptedBytes);
+            } catch (AEADBadTagException e) {
+                // Chave em cache não decifra mais estes dados: descartar e derivar novamente
+                derivedKeyCache.invalidate(walletAddress, salt);
+            } finally {
+                Arrays.fill(cachedKey, (byte) 0);
+            }
+        }
+
         // Derivar chave de descriptografia
-        SecretKey secretKey = deriveKey(password + salt, salt);
+        byte[] keyBytes = deriveKeyBytes(password + salt, salt);
+        try {
+            String privateKey = decrypt(keyBytes, iv, encryptedBytes);
+            derivedKeyCache.put(walletAddress, salt, password, keyBytes);
+            return privateKey;
+        } finally {
+            Arrays.fill(keyBytes, (byte) 0);
+        }
+    }
+
+    /**
+     * Descarta as chaves derivadas em cache de uma carteira
+     */
+    public void invalidateWalletKeys(String walletAddress) {
+        derivedKeyCache.invalidateWallet(walletAddress);
+    }
 
-        // Descriptografar
+    private String decrypt(byte[] keyBytes, byte[] iv, byte[] encryptedBytes) throws Exception {
         Cipher cipher = Cipher.getInstance(algorithm + "/GCM/NoPadding");
-        cipher.init(Cipher.DECRYPT_MODE, secretKey, new GCMParameterSpec(128, iv));
+        cipher.init(Cipher.DECRYPT_MODE, new SecretKeySpec(keyBytes, algorithm), new GCMParameterSpec(128, iv));
 
         byte[] decryptedBytes = cipher.doFinal(encryptedBytes);
         return new String(decryptedBytes);
@@ -103,10 +143,22 @@ public class CryptoService {
      * Deriva uma chave de criptografia usando PBKDF2
      */
     private SecretKey deriveKey(String password, String salt) throws Exception {
-        KeySpec spec = new PBEKeySpec(password.toCharArray(), salt.getBytes(), iterations, keyLength);
-        SecretKeyFactory factory = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256");
-        byte[] keyBytes = factory.generateSecret(spec).getEncoded();
-        return new SecretKeySpec(keyBytes, algorithm);
+        byte[] keyBytes = deriveKeyBytes(password, salt);
+        try {
+            return new SecretKeySpec(keyBytes, algorithm);
+        } finally {
+            Arrays.fill(keyBytes, (byte) 0);
+        }
+    }
+
+    private byte[] deriveKeyBytes(String password, String salt) throws Exception {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt.getBytes(), iterations, keyLength);
+        try {
+            SecretKeyFactory factory = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256");
+            return factory.generateSecret(spec).getEncoded();
+        } finally {
+            spec.clearPassword();
+        }
     }
 
     /**
@@ -122,4 +174,11 @@ public class CryptoService {
     public String decryptWithMasterPassword(String encryptedData) throws Exception {
         return decryptPrivateKey(encryptedData, masterPassword);
     }
+
+    /**
+     * Descriptografa a chave de uma carteira usando a senha mestra padrão
+     */
+    public String decryptWithMasterPassword(String walletAddress, String encryptedData) throws Exception {
+        return decryptPrivateKey(walletAddress, encryptedData, masterPassword);
+    }
 }
@@ -0,0 +1,224 @@
+package br.com.idhub.custody.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Cache limitado das chaves AES derivadas via PBKDF2, indexado por (endereço da carteira, salt,
+ * HMAC(salt, senha)): uma chave em cache só é entregue a quem apresenta a mesma senha que a derivou.
+ * As entradas expiram por inatividade e por idade absoluta, e o material da chave é zerado ao sair do cache.
+ */
+@Component
+public class DerivedKeyCache {
+
+    @Value("${crypto.key-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${crypto.key-cache.max-entries:1000}")
+    private int maxEntries;
+
+    @Value("${crypto.key-cache.idle-ttl-ms:600000}")
+    private long idleTtlMs;
+
+    @Value("${crypto.key-cache.absolute-ttl-ms:3600000}")
+    private long absoluteTtlMs;
+
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    // Ordem de acesso: a entrada mais antiga é a menos usada recentemente
+    private final LinkedHashMap<CacheKey, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    public DerivedKeyCache(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void registerMetrics() {
+        FunctionCounter.builder("crypto.key_cache.hits", hits, AtomicLong::get)
+                .description("Chaves derivadas reaproveitadas do cache")
+                .register(meterRegistry);
+        FunctionCounter.builder("crypto.key_cache.misses", misses, AtomicLong::get)
+                .description("Derivações PBKDF2 executadas por ausência no cache")
+                .register(meterRegistry);
+        FunctionCounter.builder("crypto.key_cache.evictions", evictions, AtomicLong::get)
+                .description("Chaves removidas do cache (expiração, capacidade ou invalidação)")
+                .register(meterRegistry);
+        Gauge.builder("crypto.key_cache.size", this, DerivedKeyCache::size)
+                .description("Chaves derivadas atualmente em memória")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Retorna uma cópia da chave em cache, ou null se ausente/expirada
+     */
+    public byte[] get(String walletAddress, String salt, String password) {
+        if (!enabled || walletAddress == null) {
+            return null;
+        }
+
+        CacheKey key = new CacheKey(walletAddress.toLowerCase(), salt, passwordTag(salt, password));
+        long now = System.currentTimeMillis();
+
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                misses.incrementAndGet();
+                return null;
+            }
+            if (entry.isExpired(now, idleTtlMs, absoluteTtlMs)) {
+                entries.remove(key);
+                evict(entry);
+                misses.incrementAndGet();
+                return null;
+            }
+            entry.lastAccessAt = now;
+            hits.incrementAndGet();
+            return entry.keyBytes.clone();
+        }
+    }
+
+    /**
+     * Armazena uma cópia da chave derivada
+     */
+    public void put(String walletAddress, String salt, String password, byte[] keyBytes) {
+        if (!enabled || walletAddress == null) {
+            return;
+        }
+
+        CacheKey key = new CacheKey(walletAddress.toLowerCase(), salt, passwordTag(salt, password));
+        Entry entry = new Entry(keyBytes.clone(), System.currentTimeMillis());
+
+        synchronized (entries) {
+            Entry previous = entries.put(key, entry);
+            if (previous != null) {
+                evict(previous);
+            }
+
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (entries.size() > maxEntries && iterator.hasNext()) {
+                Entry eldest = iterator.next();
+                iterator.remove();
+                evict(eldest);
+            }
+        }
+    }
+
+    /**
+     * Remove as chaves de um (endereço, salt) específico, ex.: quando a chave em cache não decifra
+     */
+    public void invalidate(String walletAddress, String salt) {
+        if (walletAddress == null) {
+            return;
+        }
+        String address = walletAddress.toLowerCase();
+        removeIf(key -> key.walletAddress().equals(address) && key.salt().equals(salt));
+    }
+
+    /**
+     * Remove todas as chaves de uma carteira
+     */
+    public void invalidateWallet(String walletAddress) {
+        if (walletAddress == null) {
+            return;
+        }
+        String address = walletAddress.toLowerCase();
+        removeIf(key -> key.walletAddress().equals(address));
+    }
+
+    /**
+     * Varredura periódica das entradas expiradas, para que chaves ociosas não fiquem em memória
+     */
+    @Scheduled(fixedDelayString = "${crypto.key-cache.sweep-interval-ms:60000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                Entry entry = iterator.next();
+                if (entry.isExpired(now, idleTtlMs, absoluteTtlMs)) {
+                    iterator.remove();
+                    evict(entry);
+                }
+            }
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private void removeIf(Predicate<CacheKey> predicate) {
+        synchronized (entries) {
+            Iterator<Map.Entry<CacheKey, Entry>> iterator = entries.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<CacheKey, Entry> mapEntry = iterator.next();
+                if (predicate.test(mapEntry.getKey())) {
+                    iterator.remove();
+                    evict(mapEntry.getValue());
+                }
+            }
+        }
+    }
+
+    private void evict(Entry entry) {
+        Arrays.fill(entry.keyBytes, (byte) 0);
+        evictions.incrementAndGet();
+    }
+
+    /**
+     * Resumo da senha para a chave do cache (HMAC-SHA256 com o salt da carteira como chave)
+     */
+    private static String passwordTag(String salt, String password) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(salt.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            return Base64.getEncoder().encodeToString(mac.doFinal(password.getBytes(StandardCharsets.UTF_8)));
+        } catch (Exception e) {
+            throw new RuntimeException("Erro ao calcular o resumo da senha", e);
+        }
+    }
+
+    private record CacheKey(String walletAddress, String salt, String passwordTag) {}
+
+    private static final class Entry {
+        private final byte[] keyBytes;
+        private final long createdAt;
+        private long lastAccessAt;
+
+        private Entry(byte[] keyBytes, long createdAt) {
+            this.keyBytes = keyBytes;
+            this.createdAt = createdAt;
+            this.lastAccessAt = createdAt;
+        }
+
+        private boolean isExpired(long now, long idleTtlMs, long absoluteTtlMs) {
+            return now - lastAccessAt > idleTtlMs || now - createdAt > absoluteTtlMs;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package br.com.idhub.custody.service;
+
+import org.springframework.stereotype.Component;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.methods.response.EthGetTransactionCount;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Alocador de nonces em processo, um contador por endereço remetente.
+ * Semeia a partir da contagem PENDING do nó, devolve nonces de envios que falharam
+ * e ressincroniza quando o nó responde "nonce too low".
+ */
+@Component
+public class NonceManager {
+
+    private final Web3j web3j;
+
+    private final ConcurrentHashMap<String, AccountNonces> accounts = new ConcurrentHashMap<>();
+
+    public NonceManager(Web3j web3j) {
+        this.web3j = web3j;
+    }
+
+    /**
+     * Reserva o próximo nonce do endereço
+     */
+    public BigInteger acquire(String address) throws IOException {
+        AccountNonces account = accounts.computeIfAbsent(normalize(address), key -> new AccountNonces());
+
+        // Lock apenas da conta: remetentes diferentes não competem entre si
+        synchronized (account) {
+            if (account.next == null) {
+                account.next = fetchPendingCount(address);
+                account.released.clear();
+            }
+
+            BigInteger reclaimed = account.released.pollFirst();
+            if (reclaimed != null) {
+                return reclaimed;
+            }
+
+            BigInteger nonce = account.next;
+            account.next = nonce.add(BigInteger.ONE);
+            return nonce;
+        }
+    }
+
+    /**
+     * Devolve um nonce cuja transação não foi aceita pelo nó, para ser reutilizado
+     */
+    public void release(String address, BigInteger nonce) {
+        AccountNonces account = accounts.get(normalize(address));
+        if (account == null || nonce == null) {
+            return;
+        }
+
+        synchronized (account) {
+            if (account.next == null || nonce.compareTo(account.next) >= 0) {
+                return;
+            }
+
+            if (nonce.add(BigInteger.ONE).equals(account.next)) {
+                // Era o último nonce entregue: recuar o contador e absorver lacunas contíguas
+                account.next = nonce;
+                while (!account.released.isEmpty()
+                        && account.released.last().add(BigInteger.ONE).equals(account.next)) {
+                    account.next = account.released.pollLast();
+                }
+            } else {
+                account.released.add(nonce);
+            }
+        }
+    }
+
+    /**
+     * Descarta o estado do endereço; o próximo acquire volta a consultar o nó
+     */
+    public void resync(String address) {
+        AccountNonces account = accounts.get(normalize(address));
+        if (account == null) {
+            return;
+        }
+
+        synchronized (account) {
+            account.next = null;
+            account.released.clear();
+        }
+    }
+
+    /**
+     * Indica se o erro retornado pelo nó é de nonce desatualizado
+     */
+    public static boolean isNonceTooLow(String errorMessage) {
+        if (errorMessage == null) {
+            return false;
+        }
+        String message = errorMessage.toLowerCase();
+        return message.contains("nonce too low") || message.contains("nonce_too_low");
+    }
+
+    private BigInteger fetchPendingCount(String address) throws IOException {
+        EthGetTransactionCount response = web3j.ethGetTransactionCount(
+                address, DefaultBlockParameterName.PENDING).send();
+
+        if (response.hasError()) {
+            throw new IOException("Erro ao obter nonce de " + address + ": " + response.getError().getMessage());
+        }
+        return response.getTransactionCount();
+    }
+
+    private String normalize(String address) {
+        return address.toLowerCase();
+    }
+
+    private static final class AccountNonces {
+        private BigInteger next;
+        private final TreeSet<BigInteger> released = new TreeSet<>();
+    }
+}
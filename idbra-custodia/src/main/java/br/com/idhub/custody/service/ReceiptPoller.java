@@ -0,0 +1,214 @@
+package br.com.idhub.custody.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.BatchRequest;
+import org.web3j.protocol.core.BatchResponse;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.core.methods.response.EthGetTransactionReceipt;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Motor único de polling de recibos: acompanha todos os hashes pendentes e consulta
+ * os recibos em um único batch JSON-RPC por ciclo, com back-off por transação.
+ */
+@Component
+public class ReceiptPoller {
+
+    private final Web3j web3j;
+
+    @Value("${blockchain.receipts.tick-interval-ms:500}")
+    private long tickIntervalMs;
+
+    @Value("${blockchain.receipts.initial-delay-ms:1000}")
+    private long initialDelayMs;
+
+    @Value("${blockchain.receipts.max-delay-ms:8000}")
+    private long maxDelayMs;
+
+    @Value("${blockchain.receipts.backoff-multiplier:1.5}")
+    private double backoffMultiplier;
+
+    @Value("${blockchain.receipts.timeout-ms:60000}")
+    private long defaultTimeoutMs;
+
+    @Value("${blockchain.receipts.max-batch-size:200}")
+    private int maxBatchSize;
+
+    @Value("${blockchain.receipts.callback-threads:4}")
+    private int callbackThreads;
+
+    private final ConcurrentHashMap<String, PendingReceipt> pending = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService scheduler;
+    private ExecutorService callbackExecutor;
+
+    public ReceiptPoller(Web3j web3j) {
+        this.web3j = web3j;
+    }
+
+    @PostConstruct
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "receipt-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Os estágios dependentes dos futures rodam fora da thread de polling
+        callbackExecutor = Executors.newFixedThreadPool(callbackThreads, runnable -> {
+            Thread thread = new Thread(runnable, "receipt-callback");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::poll, tickIntervalMs, tickIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+        pending.values().forEach(entry ->
+                entry.future.completeExceptionally(new IllegalStateException("Receipt poller encerrado")));
+        pending.clear();
+        callbackExecutor.shutdown();
+    }
+
+    /**
+     * Registra um hash para acompanhamento com o timeout padrão
+     */
+    public CompletableFuture<TransactionReceipt> register(String txHash) {
+        return register(txHash, defaultTimeoutMs);
+    }
+
+    /**
+     * Registra um hash para acompanhamento; registros repetidos compartilham o mesmo future
+     */
+    public CompletableFuture<TransactionReceipt> register(String txHash, long timeoutMs) {
+        long now = System.currentTimeMillis();
+        return pending.computeIfAbsent(txHash,
+                hash -> new PendingReceipt(now + timeoutMs, now + initialDelayMs, initialDelayMs)).future;
+    }
+
+    /**
+     * Força um ciclo imediato para todos os pendentes (ex.: quando chega um novo bloco)
+     */
+    public void pollNow() {
+        pending.values().forEach(entry -> entry.nextPollAt = 0);
+        scheduler.execute(this::poll);
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    private void poll() {
+        try {
+            long now = System.currentTimeMillis();
+            List<String> due = new ArrayList<>();
+
+            for (Map.Entry<String, PendingReceipt> entry : pending.entrySet()) {
+                PendingReceipt receipt = entry.getValue();
+                if (now > receipt.deadline) {
+                    pending.remove(entry.getKey());
+                    TimeoutException timeout = new TimeoutException(
+                            "Transaction receipt not received for " + entry.getKey());
+                    callbackExecutor.execute(() -> receipt.future.completeExceptionally(timeout));
+                } else if (now >= receipt.nextPollAt) {
+                    due.add(entry.getKey());
+                }
+            }
+
+            for (int from = 0; from < due.size(); from += maxBatchSize) {
+                pollBatch(due.subList(from, Math.min(from + maxBatchSize, due.size())), now);
+            }
+        } catch (Throwable e) {
+            System.out.println("Error polling transaction receipts: " + e.getMessage());
+        }
+    }
+
+    private void pollBatch(List<String> txHashes, long now) {
+        BatchRequest batch = web3j.newBatch();
+        Map<Long, String> hashByRequestId = new HashMap<>();
+
+        for (String txHash : txHashes) {
+            Request<?, EthGetTransactionReceipt> request = web3j.ethGetTransactionReceipt(txHash);
+            hashByRequestId.put(request.getId(), txHash);
+            batch.add(request);
+        }
+
+        BatchResponse batchResponse;
+        try {
+            batchResponse = batch.send();
+        } catch (Exception e) {
+            System.out.println("Error polling " + txHashes.size() + " receipts: " + e.getMessage());
+            txHashes.forEach(txHash -> backOff(txHash, now));
+            return;
+        }
+
+        for (Response<?> response : batchResponse.getResponses()) {
+            String txHash = hashByRequestId.remove(response.getId());
+            if (txHash == null) {
+                continue;
+            }
+
+            if (!response.hasError() && response instanceof EthGetTransactionReceipt receiptResponse
+                    && receiptResponse.getTransactionReceipt().isPresent()) {
+                complete(txHash, receiptResponse.getTransactionReceipt().get());
+            } else {
+                backOff(txHash, now);
+            }
+        }
+
+        // Respostas ausentes no batch: tentar novamente no próximo intervalo
+        hashByRequestId.values().forEach(txHash -> backOff(txHash, now));
+    }
+
+    private void complete(String txHash, TransactionReceipt txReceipt) {
+        PendingReceipt receipt = pending.remove(txHash);
+        if (receipt == null) {
+            return;
+        }
+
+        System.out.println("Transaction confirmed: " + txHash);
+        System.out.println("Gas used: " + txReceipt.getGasUsed());
+        System.out.println("Status: " + txReceipt.getStatus());
+        receipt.future.completeAsync(() -> txReceipt, callbackExecutor);
+    }
+
+    private void backOff(String txHash, long now) {
+        PendingReceipt receipt = pending.get(txHash);
+        if (receipt == null) {
+            return;
+        }
+        receipt.delayMs = Math.min(maxDelayMs, (long) (receipt.delayMs * backoffMultiplier));
+        receipt.nextPollAt = now + receipt.delayMs;
+    }
+
+    private static final class PendingReceipt {
+        private final CompletableFuture<TransactionReceipt> future = new CompletableFuture<>();
+        private final long deadline;
+        private volatile long nextPollAt;
+        private volatile long delayMs;
+
+        private PendingReceipt(long deadline, long nextPollAt, long delayMs) {
+            this.deadline = deadline;
+            this.nextPollAt = nextPollAt;
+            this.delayMs = delayMs;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package br.com.idhub.custody.service;
+
+import br.com.idhub.custody.domain.StatusList;
+
+import java.util.LinkedHashMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Acumulador de revogações por StatusList: junta os índices recebidos durante uma janela
+ * (ou até N índices) e aplica todos em uma única nova versão da lista.
+ * Cada chamador recebe um future que completa quando o lote com o seu índice é publicado.
+ * Lotes da mesma lista são aplicados em sequência; listas diferentes rodam em paralelo.
+ */
+public class RevocationBatcher {
+
+    /**
+     * Aplica um lote de revogações; índices com falha individual vão em failures
+     */
+    @FunctionalInterface
+    public interface BatchHandler {
+        BatchResult apply(String listId, Set<Integer> indices) throws Exception;
+    }
+
+    public record BatchResult(StatusList statusList, Map<Integer, Throwable> failures) {}
+
+    private final BatchHandler handler;
+    private final long windowMs;
+    private final int maxBatchSize;
+
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService executor;
+
+    private final Map<String, PendingBatch> pending = new HashMap<>();
+    private final ConcurrentHashMap<String, Object> listLocks = new ConcurrentHashMap<>();
+
+    public RevocationBatcher(BatchHandler handler, long windowMs, int maxBatchSize, int threads) {
+        this.handler = handler;
+        this.windowMs = windowMs;
+        this.maxBatchSize = maxBatchSize;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "revocation-batch-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "revocation-batch");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Inclui o índice no lote aberto da lista; pedidos repetidos do mesmo índice compartilham o future
+     */
+    public CompletableFuture<StatusList> submit(String listId, int statusListIndex) {
+        CompletableFuture<StatusList> future;
+        PendingBatch ready = null;
+
+        synchronized (pending) {
+            PendingBatch batch = pending.computeIfAbsent(listId, id -> new PendingBatch());
+            future = batch.futures.computeIfAbsent(statusListIndex, index -> new CompletableFuture<>());
+
+            if (batch.futures.size() >= maxBatchSize) {
+                pending.remove(listId);
+                if (batch.timer != null) {
+                    batch.timer.cancel(false);
+                }
+                ready = batch;
+            } else if (batch.timer == null) {
+                batch.timer = scheduler.schedule(() -> flush(listId), windowMs, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        if (ready != null) {
+            PendingBatch batch = ready;
+            executor.execute(() -> run(listId, batch));
+        }
+        return future;
+    }
+
+    public int getPendingCount() {
+        synchronized (pending) {
+            return pending.values().stream().mapToInt(batch -> batch.futures.size()).sum();
+        }
+    }
+
+    public void shutdown() {
+        scheduler.shutdownNow();
+        executor.shutdown();
+    }
+
+    private void flush(String listId) {
+        PendingBatch batch;
+        synchronized (pending) {
+            batch = pending.remove(listId);
+        }
+        if (batch != null) {
+            executor.execute(() -> run(listId, batch));
+        }
+    }
+
+    private void run(String listId, PendingBatch batch) {
+        // Uma versão por vez por lista: o próximo lote parte da versão publicada por este
+        synchronized (listLocks.computeIfAbsent(listId, id -> new Object())) {
+            try {
+                BatchResult result = handler.apply(listId, batch.futures.keySet());
+                batch.futures.forEach((index, future) -> {
+                    Throwable failure = result.failures().get(index);
+                    if (failure != null) {
+                        future.completeExceptionally(failure);
+                    } else {
+                        future.complete(result.statusList());
+                    }
+                });
+            } catch (Throwable e) {
+                batch.futures.values().forEach(future -> future.completeExceptionally(e));
+            }
+        }
+    }
+
+    private static final class PendingBatch {
+        private final Map<Integer, CompletableFuture<StatusList>> futures = new LinkedHashMap<>();
+        private ScheduledFuture<?> timer;
+    }
+}
@@ -0,0 +1,157 @@
+package br.com.idhub.custody.service;
+
+import br.com.idhub.custody.domain.StatusBitstring;
+import br.com.idhub.custody.domain.StatusList;
+import br.com.idhub.custody.repository.StatusListRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache em memória do bitstring de revogação de cada StatusList, por listId + versão.
+ * Os snapshots são imutáveis e substituídos por inteiro, então a leitura não usa lock.
+ */
+@Component
+public class StatusListCache {
+
+    private final StatusListRepository statusListRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final ConcurrentHashMap<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+    public StatusListCache(StatusListRepository statusListRepository) {
+        this.statusListRepository = statusListRepository;
+    }
+
+    /**
+     * Snapshot em cache da versão mais recente; carrega do banco na primeira leitura
+     */
+    public Optional<Snapshot> get(String listId) {
+        Snapshot snapshot = snapshots.get(listId);
+        if (snapshot != null) {
+            return Optional.of(snapshot);
+        }
+        return load(listId);
+    }
+
+    /**
+     * Lê a versão mais recente do banco e atualiza o cache
+     */
+    public Optional<Snapshot> load(String listId) {
+        Optional<StatusList> latestOpt = statusListRepository.findLatestVersionByListId(listId);
+        if (latestOpt.isEmpty()) {
+            snapshots.remove(listId);
+            return Optional.empty();
+        }
+
+        StatusList latest = latestOpt.get();
+        StatusBitstring bitstring = latest.isSnapshot() ? decode(latest) : bitstringAt(listId, latest.getVersion());
+        return Optional.of(publish(latest, bitstring));
+    }
+
+    /**
+     * Reconstrói o bitstring de uma versão: snapshot mais recente até ela (ou o cache, se mais
+     * próximo) seguido dos deltas das versões intermediárias
+     */
+    public StatusBitstring bitstringAt(String listId, long version) {
+        Long snapshotVersion = statusListRepository.findSnapshotVersionAtOrBefore(listId, version);
+        Snapshot cached = snapshots.get(listId);
+
+        StatusBitstring bitstring;
+        long fromVersion;
+        if (cached != null && cached.version() <= version &&
+            (snapshotVersion == null || cached.version() >= snapshotVersion)) {
+            bitstring = cached.bitstring().copy();
+            fromVersion = cached.version();
+        } else if (snapshotVersion != null) {
+            StatusList snapshot = statusListRepository.findByListIdAndVersion(listId, snapshotVersion)
+                .orElseThrow(() -> new RuntimeException("Snapshot não encontrado: " + listId + " v" + snapshotVersion));
+            bitstring = decode(snapshot);
+            fromVersion = snapshotVersion;
+        } else {
+            bitstring = new StatusBitstring();
+            fromVersion = 0;
+        }
+
+        for (StatusList delta : statusListRepository.findVersionsInRange(listId, fromVersion, version)) {
+            applyDelta(bitstring, delta.getDeltaIndices());
+        }
+        return bitstring;
+    }
+
+    /**
+     * Aplica um delta (índices alterados, separados por vírgula) invertendo cada bit
+     */
+    public static void applyDelta(StatusBitstring bitstring, String deltaIndices) {
+        if (deltaIndices == null || deltaIndices.isBlank()) {
+            return;
+        }
+        for (String index : deltaIndices.split(",")) {
+            int i = Integer.parseInt(index.trim());
+            bitstring.set(i, !bitstring.get(i));
+        }
+    }
+
+    /**
+     * Publica o bitstring de uma versão recém-salva; versões mais antigas que a do cache são ignoradas
+     */
+    public Snapshot publish(StatusList statusList, StatusBitstring bitstring) {
+        Snapshot candidate = new Snapshot(statusList.getListId(), statusList.getVersion(),
+                                          statusList.getHash(), bitstring.copy());
+        return snapshots.merge(statusList.getListId(), candidate,
+            (current, updated) -> updated.version() >= current.version() ? updated : current);
+    }
+
+    public void invalidate(String listId) {
+        snapshots.remove(listId);
+    }
+
+    /**
+     * Revalidação periódica contra o banco, para versões gravadas por outras instâncias
+     */
+    @Scheduled(fixedDelayString = "${status-list.cache.revalidate-interval-ms:30000}")
+    public void revalidate() {
+        for (Snapshot snapshot : snapshots.values()) {
+            try {
+                Long latestVersion = statusListRepository.findLatestVersionNumber(snapshot.listId());
+                if (latestVersion == null) {
+                    snapshots.remove(snapshot.listId());
+                } else if (latestVersion > snapshot.version()) {
+                    load(snapshot.listId());
+                }
+            } catch (Exception e) {
+                System.out.println("Erro ao revalidar cache da StatusList " + snapshot.listId() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    public int size() {
+        return snapshots.size();
+    }
+
+    private StatusBitstring decode(StatusList statusList) {
+        String json = statusList.getStatusListData();
+        if (json == null || json.isBlank()) {
+            return new StatusBitstring();
+        }
+        try {
+            return StatusBitstring.fromStatusListDocument(objectMapper.readTree(json));
+        } catch (Exception e) {
+            throw new RuntimeException("Erro ao ler StatusList " + statusList.getListId() + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Versão imutável de uma StatusList; o bitstring não deve ser alterado (use copy())
+     */
+    public record Snapshot(String listId, Long version, String hash, StatusBitstring bitstring) {
+
+        public boolean isRevoked(int index) {
+            return bitstring.get(index);
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package br.com.idhub.custody.service;
+
+import br.com.idhub.custody.domain.StatusListIndexAllocation;
+import br.com.idhub.custody.repository.CredentialRepository;
+import br.com.idhub.custody.repository.StatusListIndexAllocationRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Alocador de índices de StatusList. Cada instância reserva blocos de índices na linha de
+ * sequência da lista (status_list_index_allocations) com lock otimista e os distribui em memória,
+ * de modo que threads e instâncias diferentes nunca recebem o mesmo índice.
+ * Quando a lista ativa enche, a alocação passa para uma nova lista criada a partir da base.
+ * A criação on-chain dessa lista roda fora do lock do bloco: começa em segundo plano quando o
+ * segmento atual passa da marca de ocupação, e só quem recebeu índices na lista nova espera por ela.
+ */
+@Component
+public class StatusListIndexAllocator {
+
+    public record Slot(String statusListId, int index) {}
+
+    // nextListId: próxima lista de continuação, preenchida quando o segmento passa da marca de ocupação
+    private record Reservation(String statusListId, int start, int end, String nextListId) {}
+
+    @Autowired
+    private StatusListIndexAllocationRepository allocationRepository;
+
+    @Autowired
+    private CredentialRepository credentialRepository;
+
+    @Autowired
+    private StatusListService statusListService;
+
+    @Value("${status-list.index.block-size:1000}")
+    private int blockSize;
+
+    @Value("${status-list.index.capacity:131072}")
+    private int capacity;
+
+    @Value("${status-list.index.max-retries:10}")
+    private int maxRetries;
+
+    // Fração do segmento a partir da qual a próxima lista de continuação é criada antecipadamente
+    @Value("${status-list.index.rollover-high-water:0.9}")
+    private double rolloverHighWater;
+
+    private final TransactionTemplate transactionTemplate;
+
+    // Bloco reservado e ainda não distribuído, por lista solicitada
+    private final ConcurrentHashMap<String, Block> blocks = new ConcurrentHashMap<>();
+
+    // Listas de continuação já confirmadas como existentes
+    private final Set<String> knownRolloverLists = ConcurrentHashMap.newKeySet();
+
+    // Criações on-chain em andamento, uma por lista de continuação
+    private final ConcurrentHashMap<String, CompletableFuture<Void>> rolloverCreations = new ConcurrentHashMap<>();
+
+    private ExecutorService rolloverExecutor;
+
+    public StatusListIndexAllocator(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    public void start() {
+        rolloverExecutor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "status-list-rollover");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        rolloverExecutor.shutdownNow();
+    }
+
+    /**
+     * Aloca um índice na lista
+     */
+    public Slot allocate(String listId) {
+        return allocate(listId, 1).get(0);
+    }
+
+    /**
+     * Aloca count índices na lista; o que faltar no bloco atual é reservado de uma só vez
+     */
+    public List<Slot> allocate(String listId, int count) {
+        Block block = blocks.computeIfAbsent(listId, id -> new Block());
+        List<Slot> slots = new ArrayList<>(count);
+
+        // O lock cobre só a reserva no banco; nenhuma transação on-chain roda com ele
+        synchronized (block) {
+            while (slots.size() < count) {
+                if (block.next >= block.end) {
+                    Reservation reservation = reserve(listId, Math.max(blockSize, count - slots.size()));
+                    block.statusListId = reservation.statusListId();
+                    block.next = reservation.start();
+                    block.end = reservation.end();
+                    if (reservation.nextListId() != null) {
+                        createRolloverList(listId, reservation.nextListId());
+                    }
+                }
+
+                while (block.next < block.end && slots.size() < count) {
+                    slots.add(new Slot(block.statusListId, block.next++));
+                }
+            }
+        }
+
+        Set<String> rolloverLists = new LinkedHashSet<>();
+        for (Slot slot : slots) {
+            if (!listId.equals(slot.statusListId())) {
+                rolloverLists.add(slot.statusListId());
+            }
+        }
+        for (String statusListId : rolloverLists) {
+            awaitRolloverList(listId, statusListId);
+        }
+        return slots;
+    }
+
+    private Reservation reserve(String listId, int size) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> reserveInTransaction(listId, size));
+            } catch (OptimisticLockingFailureException | DataIntegrityViolationException e) {
+                // Outra instância reservou (ou criou a linha) ao mesmo tempo: reler e tentar de novo
+                if (attempt >= maxRetries) {
+                    throw new RuntimeException("Não foi possível reservar índices na StatusList " + listId +
+                                               " após " + attempt + " tentativas", e);
+                }
+            }
+        }
+    }
+
+    private Reservation reserveInTransaction(String listId, int size) {
+        StatusListIndexAllocation allocation = allocationRepository.findById(listId)
+            .orElseGet(() -> allocationRepository.save(
+                new StatusListIndexAllocation(listId, initialNextIndex(listId), capacity)));
+
+        if (allocation.getNextIndex() >= allocation.getCapacity()) {
+            int segment = allocation.getSegment() + 1;
+            allocation.setSegment(segment);
+            allocation.setCurrentListId(listId + "-" + segment);
+            allocation.setNextIndex(0);
+            System.out.println("StatusList " + listId + " cheia, alocando em " + allocation.getCurrentListId());
+        }
+
+        int start = allocation.getNextIndex();
+        int end = Math.min(start + size, allocation.getCapacity());
+        allocation.setNextIndex(end);
+        allocationRepository.save(allocation);
+
+        String nextListId = end >= allocation.getCapacity() * rolloverHighWater
+            ? listId + "-" + (allocation.getSegment() + 1) : null;
+        return new Reservation(allocation.getCurrentListId(), start, end, nextListId);
+    }
+
+    /**
+     * Listas que já tinham credenciais antes do alocador continuam após o maior índice usado
+     */
+    private int initialNextIndex(String listId) {
+        Integer maxIndex = credentialRepository.findMaxStatusListIndex(listId);
+        return maxIndex != null ? maxIndex + 1 : 0;
+    }
+
+    /**
+     * Inicia (ou reaproveita) a criação on-chain da lista de continuação em segundo plano
+     */
+    private CompletableFuture<Void> createRolloverList(String baseListId, String statusListId) {
+        if (knownRolloverLists.contains(statusListId)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        CompletableFuture<Void> creation = rolloverCreations.computeIfAbsent(statusListId, id ->
+            CompletableFuture.runAsync(() -> {
+                try {
+                    statusListService.ensureRolloverStatusList(baseListId, id);
+                    knownRolloverLists.add(id);
+                } catch (Exception e) {
+                    throw new CompletionException(e);
+                }
+            }, rolloverExecutor));
+        // Concluída (ou falhou): sai do mapa para que uma falha seja tentada de novo
+        creation.whenComplete((result, error) -> rolloverCreations.remove(statusListId, creation));
+        return creation;
+    }
+
+    private void awaitRolloverList(String baseListId, String statusListId) {
+        try {
+            createRolloverList(baseListId, statusListId).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            throw new RuntimeException("Erro ao criar StatusList de continuação " + statusListId + ": " +
+                                       cause.getMessage(), cause);
+        }
+    }
+
+    private static final class Block {
+        private String statusListId;
+        private int next;
+        private int end;
+    }
+}
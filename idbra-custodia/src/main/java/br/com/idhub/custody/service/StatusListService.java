@@ -2,18 +2,31 @@ package br.com.idhub.custody.service;
 
 import br.com.idhub.custody.domain.*;
 import br.com.idhub.custody.repository.CredentialRepository;
+import br.com.idhub.custody.repository.StatusListHeadRepository;
 import br.com.idhub.custody.repository.StatusListRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.web3j.crypto.Keys;
 import org.web3j.utils.Numeric;
 import org.web3j.protocol.core.methods.response.TransactionReceipt;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
 
 @Service
 public class StatusListService {
@@ -27,8 +40,81 @@ public class StatusListService {
     @Autowired
     private BlockchainService blockchainService;
 
+    @Autowired
+    private StatusListCache statusListCache;
+
+    @Autowired
+    private StatusListHeadRepository statusListHeadRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${status-list.revocation.batch-window-ms:2000}")
+    private long revocationBatchWindowMs;
+
+    @Value("${status-list.revocation.max-batch-size:1000}")
+    private int revocationMaxBatchSize;
+
+    @Value("${status-list.revocation.threads:4}")
+    private int revocationThreads;
+
+    // A cada N versões o JSON completo é gravado; nas demais, só os índices alterados
+    @Value("${status-list.history.snapshot-interval:50}")
+    private int snapshotInterval;
+
+    @Value("${status-list.public.document-cache-size:256}")
+    private int documentCacheSize;
+
     private final ObjectMapper objectMapper = new ObjectMapper();
 
+    // Documentos publicados por listId@versão; cada versão é imutável
+    private Map<String, PublishedDocument> publishedDocuments;
+
+    /**
+     * Documento de uma versão já serializado e comprimido, com ETag forte derivado do hash
+     */
+    public record PublishedDocument(String listId, Long version, String etag, byte[] json, byte[] gzip) {
+
+        /**
+         * ETag do corpo comprimido: outra representação, outro ETag forte
+         */
+        public String gzipEtag() {
+            return etag.substring(0, etag.length() - 1) + "-gzip\"";
+        }
+    }
+
+    private RevocationBatcher revocationBatcher;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void start() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        try {
+            Integer created = transactionTemplate.execute(status -> statusListHeadRepository.backfillMissingHeads());
+            if (created != null && created > 0) {
+                System.out.println("Ponteiros de versão criados para " + created + " StatusLists");
+            }
+        } catch (Exception e) {
+            // Sem ponteiro, a leitura cai na busca por MAX(version)
+            System.err.println("Erro ao criar ponteiros de versão das StatusLists: " + e.getMessage());
+        }
+
+        publishedDocuments = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PublishedDocument> eldest) {
+                return size() > documentCacheSize;
+            }
+        });
+        revocationBatcher = new RevocationBatcher(this::applyRevocationBatch,
+            revocationBatchWindowMs, revocationMaxBatchSize, revocationThreads);
+    }
+
+    @PreDestroy
+    public void stop() {
+        revocationBatcher.shutdown();
+    }
+
     /**
      * Criar nova StatusList
      */
@@ -44,17 +130,11 @@ public class StatusListService {
         throw new RuntimeException("Wallet não tem ISSUER_ROLE: " + issuerWalletAddress);
     }
 
-    // Gerar dados da lista
-    StatusListData listData = generateStatusListData(listId, issuer, new ArrayList<>());
-    String statusListJson = objectMapper.writeValueAsString(listData);
-
-    // Calcular hash real
-    String hash = calculateHash(statusListJson);
-
-    // Criar entidade local
-    StatusList statusList = new StatusList(listId, uri, hash, 1L, purpose, issuer);
-    statusList.setIssuerWalletAddress(issuerWalletAddress);
-    statusList.setStatusListData(statusListJson);
+    // Gerar dados da lista e criar entidade local
+    StatusBitstring bitstring = new StatusBitstring();
+    StatusList statusList = buildVersion(listId, uri, 1L, purpose, issuer, issuerWalletAddress,
+                                         bitstring, Set.of());
+    String hash = statusList.getHash();
 
     // Publicar on-chain via smart contract e aguardar confirmação
     try {
@@ -63,7 +143,7 @@ public class StatusListService {
             uri,
             hash,
             1L,
-            (long) listData.getStatusList().size(),
+            (long) bitstring.length(),
             purpose,
             issuerWalletAddress
         ).get(); // Aguarda a confirmação da transação
@@ -74,13 +154,38 @@ public class StatusListService {
         }
 
         // Salvar localmente apenas após confirmação na blockchain
-        return statusListRepository.save(statusList);
+        StatusList saved = saveVersion(statusList);
+        statusListCache.publish(saved, bitstring);
+        return saved;
 
     } catch (Exception e) {
         throw new RuntimeException("Erro ao publicar StatusList: " + e.getMessage(), e);
     }
                                  }
 
+    /**
+     * Garantir a StatusList de continuação usada quando a lista base enche,
+     * com uri, propósito e emissor copiados da base
+     */
+    public void ensureRolloverStatusList(String baseListId, String newListId) throws Exception {
+        if (statusListRepository.existsByListId(newListId)) {
+            return;
+        }
+
+        StatusList base = statusListRepository.findLatestVersionByListId(baseListId)
+            .orElseThrow(() -> new RuntimeException("StatusList não encontrada: " + baseListId));
+
+        try {
+            createStatusList(newListId, base.getUri().replace(baseListId, newListId), base.getPurpose(),
+                             base.getIssuer(), base.getIssuerWalletAddress());
+        } catch (RuntimeException e) {
+            // Outra instância pode ter criado a mesma lista em paralelo
+            if (!statusListRepository.existsByListId(newListId)) {
+                throw e;
+            }
+        }
+    }
+
     /**
      * Atualizar StatusList existente
      */
@@ -94,18 +199,11 @@ public class StatusListService {
         StatusList existing = existingOpt.get();
         Long newVersion = existing.getVersion() + 1;
 
-        // Gerar nova lista com status atualizados
-        List<Integer> currentStatus = getCurrentStatusList(listId);
-        StatusListData listData = generateStatusListData(listId, existing.getIssuer(), currentStatus);
-        String statusListJson = objectMapper.writeValueAsString(listData);
-
-        // Calcular hash real
-        String hash = calculateHash(statusListJson);
-
-        // Criar nova versão
-        StatusList newStatusList = new StatusList(listId, newUri, hash, newVersion, existing.getPurpose(), existing.getIssuer());
-        newStatusList.setIssuerWalletAddress(issuerWalletAddress);
-        newStatusList.setStatusListData(statusListJson);
+        // Criar nova versão com os status atuais (nenhum índice alterado)
+        StatusBitstring currentStatus = getCurrentBitstring(listId);
+        StatusList newStatusList = buildVersion(listId, newUri, newVersion, existing.getPurpose(),
+                                                existing.getIssuer(), issuerWalletAddress, currentStatus, Set.of());
+        String hash = newStatusList.getHash();
 
         // Publicar atualização on-chain via smart contract e aguardar confirmação
         try {
@@ -123,7 +221,9 @@ public class StatusListService {
             }
 
             // Salvar localmente apenas após confirmação na blockchain
-            return statusListRepository.save(newStatusList);
+            StatusList saved = saveVersion(newStatusList);
+            statusListCache.publish(saved, currentStatus);
+            return saved;
 
         } catch (Exception e) {
             throw new RuntimeException("Erro ao atualizar StatusList na blockchain: " + e.getMessage(), e);
@@ -131,151 +231,192 @@ public class StatusListService {
     }
 
     /**
-     * Revogar credencial na StatusList
+     * Revogar credencial na StatusList. A revogação entra no lote aberto da lista e o
+     * chamador aguarda a publicação da versão que contém o seu índice.
      */
     public boolean revokeCredentialInList(String listId, Integer statusListIndex) throws Exception {
         System.out.println("[REVOKE] Iniciando revogação para listId: " + listId + ", index: " + statusListIndex);
 
+        try {
+            StatusList published = revocationBatcher.submit(listId, statusListIndex).get();
+            System.out.println("[REVOKE] Índice " + statusListIndex + " publicado na versão " + published.getVersion());
+            return true;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception exception) {
+                throw exception;
+            }
+            throw new RuntimeException(cause);
+        }
+    }
+
+    /**
+     * Aplica um lote de revogações: revoga cada credencial no DIDRegistry (transações enviadas
+     * em sequência de nonces, sem aguardar bloco a bloco), marca todos os bits em uma única
+     * nova versão e publica uma só âncora da StatusList.
+     */
+    private RevocationBatcher.BatchResult applyRevocationBatch(String listId, Set<Integer> indices) throws Exception {
+        System.out.println("[REVOKE] Aplicando lote de " + indices.size() + " revogações na StatusList " + listId);
+
         Optional<StatusList> latestOpt = statusListRepository.findLatestVersionByListId(listId);
         if (latestOpt.isEmpty()) {
             throw new RuntimeException("StatusList não encontrada: " + listId);
         }
 
         StatusList latest = latestOpt.get();
+        StatusBitstring currentStatus = getCurrentBitstring(listId);
         System.out.println("[REVOKE] StatusList encontrada - versão atual: " + latest.getVersion());
 
-        // Obter status atual
-        List<Integer> currentStatus = getCurrentStatusList(listId);
-        System.out.println("[REVOKE] Status atual obtido - tamanho: " + currentStatus.size());
-
-        // Verificar se o índice existe
-        if (statusListIndex >= currentStatus.size()) {
-            System.out.println("[REVOKE] Expandindo lista de " + currentStatus.size() + " para " + (statusListIndex + 1));
-            // Expandir lista se necessário
-            while (currentStatus.size() <= statusListIndex) {
-                currentStatus.add(0); // 0 = válido
+        // Índices já revogados não geram nova transação
+        Set<Integer> toRevoke = new TreeSet<>();
+        for (Integer index : indices) {
+            if (!currentStatus.get(index)) {
+                toRevoke.add(index);
             }
         }
+        if (toRevoke.isEmpty()) {
+            return new RevocationBatcher.BatchResult(latest, Map.of());
+        }
 
-        // Marcar como revogado (1 = revogado)
-        currentStatus.set(statusListIndex, 1);
-        System.out.println("[REVOKE] Credencial marcada como revogada no índice: " + statusListIndex);
-
-        // Gerar nova versão
-        StatusListData listData = generateStatusListData(listId, latest.getIssuer(), currentStatus);
-        String statusListJson = objectMapper.writeValueAsString(listData);
-        String hash = calculateHash(statusListJson);
-        System.out.println("[REVOKE] Nova versão gerada - hash: " + hash);
-
-        // Criar nova versão
-        StatusList newStatusList = new StatusList(listId, latest.getUri(), hash, latest.getVersion() + 1,
-                                                latest.getPurpose(), latest.getIssuer());
-        newStatusList.setIssuerWalletAddress(latest.getIssuerWalletAddress());
-        newStatusList.setStatusListData(statusListJson);
-        System.out.println("[REVOKE] Nova StatusList criada - versão: " + newStatusList.getVersion());
+        // 1. Primeiro revogar as credenciais no DIDRegistry
+        Map<Integer, Throwable> failures = new HashMap<>();
+        Map<Integer, CompletableFuture<TransactionReceipt>> registryRevocations = new LinkedHashMap<>();
+        String issuerWalletAddress = latest.getIssuerWalletAddress();
 
-        // 1. Primeiro revogar a credencial no DIDRegistry (CORREÇÃO)
-        try {
-            System.out.println("[REVOKE] Iniciando revogação da credencial no DIDRegistry...");
-            // Obter credencial associada a este índice na StatusList
-            Optional<Credential> credentialOpt = credentialRepository.findByStatusListIdAndStatusListIndex(listId, statusListIndex);
-            if (credentialOpt.isPresent()) {
-                Credential credential = credentialOpt.get();
-                String credentialId = credential.getCredentialId();
-                String issuerWalletAddress = latest.getIssuerWalletAddress();
-                String holderAddress = credential.getHolderDid().replace("did:ethr:", ""); // Extrair endereço do DID
-                System.out.println("[REVOKE] Credencial encontrada: " + credentialId + ", issuer: " + issuerWalletAddress + ", holder: " + holderAddress);
-
-                // CORREÇÃO: Usar revokeCredential em vez de revokeAttribute
-                TransactionReceipt receipt = blockchainService.revokeCredential(
+        for (Credential credential : credentialRepository.findByStatusListIdAndStatusListIndexIn(listId, toRevoke)) {
+            String holderAddress = credential.getHolderDid().replace("did:ethr:", ""); // Extrair endereço do DID
+            try {
+                registryRevocations.put(credential.getStatusListIndex(), blockchainService.revokeCredential(
                     issuerWalletAddress,
-                    credentialId,
+                    credential.getCredentialId(),
                     holderAddress,
                     "Credencial revogada via StatusList"
-                ).get(); // Aguardar confirmação
-
-                System.out.println("[REVOKE] Transação de revogação enviada - hash: " + receipt.getTransactionHash());
-                System.out.println("[REVOKE] Status da transação de revogação: " + receipt.isStatusOK());
+                ));
+            } catch (Exception e) {
+                failures.put(credential.getStatusListIndex(), e);
+            }
+        }
+        if (registryRevocations.size() + failures.size() < toRevoke.size()) {
+            System.out.println("[REVOKE] AVISO: " + (toRevoke.size() - registryRevocations.size() - failures.size()) +
+                               " índices sem credencial associada na StatusList " + listId);
+        }
 
+        registryRevocations.forEach((index, receiptFuture) -> {
+            try {
+                TransactionReceipt receipt = receiptFuture.get();
                 if (!receipt.isStatusOK()) {
-                    throw new RuntimeException("Falha ao revogar credencial no DIDRegistry - Status: " + receipt.getStatus());
+                    failures.put(index, new RuntimeException(
+                        "Falha ao revogar credencial no DIDRegistry - Status: " + receipt.getStatus()));
                 }
-            } else {
-                System.out.println("[REVOKE] AVISO: Credencial não encontrada para listId: " + listId + ", index: " + statusListIndex);
+            } catch (Exception e) {
+                Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+                failures.put(index, new RuntimeException("Erro ao revogar credencial no DIDRegistry: " + cause.getMessage(), cause));
             }
-        } catch (Exception e) {
-            System.err.println("[REVOKE] ERRO ao revogar credencial no DIDRegistry: " + e.getMessage());
-            e.printStackTrace();
-            throw new RuntimeException("Erro ao revogar credencial no DIDRegistry: " + e.getMessage(), e);
+        });
+        failures.forEach((index, error) ->
+            System.err.println("[REVOKE] ERRO ao revogar índice " + index + " no DIDRegistry: " + error.getMessage()));
+
+        toRevoke.removeAll(failures.keySet());
+        if (toRevoke.isEmpty()) {
+            return new RevocationBatcher.BatchResult(latest, failures);
         }
 
-        // 2. Depois atualizar a StatusList na blockchain
-        try {
-            System.out.println("[REVOKE] Iniciando atualização da StatusList na blockchain...");
-            System.out.println("[REVOKE] Parâmetros: listId=" + listId + ", version=" + newStatusList.getVersion() + ", uri=" + newStatusList.getUri() + ", hash=" + hash);
+        // 2. Marcar todos os bits do lote (bit 1 = revogado) em uma única versão
+        toRevoke.forEach(index -> currentStatus.set(index, true));
+
+        StatusList newStatusList = buildVersion(listId, latest.getUri(), latest.getVersion() + 1, latest.getPurpose(),
+                                                latest.getIssuer(), issuerWalletAddress, currentStatus, toRevoke);
+        String hash = newStatusList.getHash();
+        System.out.println("[REVOKE] Nova versão " + newStatusList.getVersion() + " com " + toRevoke.size() +
+                           " revogações - hash: " + hash);
 
+        // 3. Uma única âncora da nova versão na blockchain
+        try {
             TransactionReceipt receipt = blockchainService.updateStatusList(
                 listId,
                 newStatusList.getVersion(),
                 newStatusList.getUri(),
                 hash,
-                latest.getIssuerWalletAddress()
+                issuerWalletAddress
             ).get(); // Aguardar confirmação
 
-            System.out.println("[REVOKE] Transação de atualização da StatusList enviada - hash: " + receipt.getTransactionHash());
-            System.out.println("[REVOKE] Status da transação de atualização: " + receipt.isStatusOK());
-            System.out.println("[REVOKE] Gas usado: " + receipt.getGasUsed());
+            System.out.println("[REVOKE] Transação de atualização da StatusList - hash: " + receipt.getTransactionHash());
 
             if (!receipt.isStatusOK()) {
                 throw new RuntimeException("Falha ao atualizar StatusList na blockchain");
             }
-
-            System.out.println("[REVOKE] StatusList atualizada com sucesso na blockchain!");
         } catch (Exception e) {
             System.err.println("[REVOKE] ERRO ao atualizar StatusList na blockchain: " + e.getMessage());
-            e.printStackTrace();
             throw new RuntimeException("Erro ao atualizar StatusList na blockchain: " + e.getMessage(), e);
         }
 
-        // 3. Por fim, salvar a nova versão localmente
-        System.out.println("[REVOKE] Salvando nova versão localmente...");
-        statusListRepository.save(newStatusList);
-        System.out.println("[REVOKE] Nova versão salva com sucesso! Versão: " + newStatusList.getVersion());
+        // 4. Por fim, salvar a nova versão localmente
+        StatusList saved = saveVersion(newStatusList);
+        statusListCache.publish(saved, currentStatus);
+        System.out.println("[REVOKE] Nova versão salva com sucesso! Versão: " + saved.getVersion());
 
-        return true;
+        return new RevocationBatcher.BatchResult(saved, failures);
     }
 
     /**
      * Verificar status de uma credencial
      */
     public boolean isCredentialRevoked(String listId, Integer statusListIndex) throws Exception {
+        // Índice além do bitstring = válido
+        return getStatusSnapshot(listId).isRevoked(statusListIndex);
+    }
 
-        Optional<StatusList> latestOpt = statusListRepository.findLatestVersionByListId(listId);
-        if (latestOpt.isEmpty()) {
-            throw new RuntimeException("StatusList não encontrada: " + listId);
-        }
-
-        StatusList latest = latestOpt.get();
-        List<Integer> currentStatus = getCurrentStatusList(listId);
+    /**
+     * Snapshot em memória da versão atual da lista; banco e JSON só na primeira leitura
+     */
+    public StatusListCache.Snapshot getStatusSnapshot(String listId) {
+        return statusListCache.get(listId)
+            .orElseThrow(() -> new RuntimeException("StatusList não encontrada: " + listId));
+    }
 
-        if (statusListIndex >= currentStatus.size()) {
-            return false; // Índice não existe = válido
+    /**
+     * Obter StatusList como JSON
+     */
+    public String getStatusListAsJson(String listId) throws Exception {
+        Long latestVersion = statusListRepository.findLatestVersionNumber(listId);
+        if (latestVersion == null) {
+            throw new RuntimeException("StatusList não encontrada: " + listId);
         }
+        return getStatusListVersionAsJson(listId, latestVersion);
+    }
 
-        return currentStatus.get(statusListIndex) == 1; // 1 = revogado
+    /**
+     * Obter o JSON de uma versão específica; versões delta são reconstruídas a partir do
+     * snapshot anterior e produzem o mesmo documento (e hash) publicado na época
+     */
+    public String getStatusListVersionAsJson(String listId, Long version) throws Exception {
+        return documentJson(findVersion(listId, version));
     }
 
     /**
-     * Obter StatusList como JSON
+     * Documento publicado da versão mais recente, servido da memória enquanto a versão não muda
      */
-    public String getStatusListAsJson(String listId) throws Exception {
+    public PublishedDocument getPublishedDocument(String listId) throws Exception {
+        StatusListCache.Snapshot snapshot = statusListCache.get(listId)
+            .orElseThrow(() -> new NoSuchElementException("StatusList não encontrada: " + listId));
+        return getPublishedDocument(listId, snapshot.version());
+    }
 
-        Optional<StatusList> latestOpt = statusListRepository.findLatestVersionByListId(listId);
-        if (latestOpt.isEmpty()) {
-            throw new RuntimeException("StatusList não encontrada: " + listId);
+    /**
+     * Documento publicado de uma versão específica
+     */
+    public PublishedDocument getPublishedDocument(String listId, Long version) throws Exception {
+        String key = listId + "@" + version;
+        PublishedDocument document = publishedDocuments.get(key);
+        if (document != null) {
+            return document;
         }
 
-        return latestOpt.get().getStatusListData();
+        StatusList statusList = findVersion(listId, version);
+        byte[] json = documentJson(statusList).getBytes(StandardCharsets.UTF_8);
+        document = new PublishedDocument(listId, version, "\"" + statusList.getHash() + "\"", json, gzip(json));
+        publishedDocuments.put(key, document);
+        return document;
     }
 
     /**
@@ -301,22 +442,66 @@ public class StatusListService {
         metadata.put("updatedAt", latest.getUpdatedAt());
 
         // Contar credenciais válidas e revogadas
-        List<Integer> statusList = getCurrentStatusList(listId);
-        long validCount = statusList.stream().filter(status -> status == 0).count();
-        long revokedCount = statusList.stream().filter(status -> status == 1).count();
-
-        metadata.put("totalCredentials", statusList.size());
-        metadata.put("validCredentials", validCount);
+        StatusBitstring bitstring = statusListCache.get(listId)
+            .map(StatusListCache.Snapshot::bitstring)
+            .orElseGet(StatusBitstring::new);
+        long totalCount = credentialRepository.countByStatusListId(listId);
+        long revokedCount = bitstring.cardinality();
+
+        metadata.put("totalCredentials", totalCount);
+        metadata.put("validCredentials", Math.max(0, totalCount - revokedCount));
         metadata.put("revokedCredentials", revokedCount);
+        metadata.put("statusListLength", bitstring.length());
+        metadata.put("legacyFormat", isLegacyFormat(latest.getStatusListData()));
+        metadata.put("snapshot", latest.isSnapshot());
 
         return metadata;
     }
 
+    /**
+     * Migrar a StatusList para o bitstring comprimido: publica uma nova versão com os mesmos
+     * status no formato StatusList2021. As versões antigas permanecem intactas, pois seus
+     * hashes já estão ancorados on-chain.
+     */
+    public Optional<StatusList> migrateLegacyStatusList(String listId) throws Exception {
+        Optional<StatusList> latestOpt = statusListRepository.findLatestVersionByListId(listId);
+        if (latestOpt.isEmpty()) {
+            throw new RuntimeException("StatusList não encontrada: " + listId);
+        }
+
+        StatusList latest = latestOpt.get();
+        if (!isLegacyFormat(latest.getStatusListData())) {
+            return Optional.empty();
+        }
+
+        System.out.println("[MIGRATE] Migrando StatusList " + listId + " (versão " + latest.getVersion() + ")");
+        return Optional.of(updateStatusList(listId, latest.getUri(), latest.getIssuerWalletAddress()));
+    }
+
+    /**
+     * Migrar todas as StatusLists cuja versão mais recente ainda está no formato antigo
+     */
+    public List<String> migrateLegacyStatusLists() {
+        List<String> migrated = new ArrayList<>();
+        List<String> listIds = statusListRepository.findDistinctListIds();
+
+        for (String listId : listIds) {
+            try {
+                if (migrateLegacyStatusList(listId).isPresent()) {
+                    migrated.add(listId);
+                }
+            } catch (Exception e) {
+                System.err.println("[MIGRATE] Erro ao migrar StatusList " + listId + ": " + e.getMessage());
+            }
+        }
+        return migrated;
+    }
+
     /**
      * Listar todas as StatusLists
      */
-    public List<StatusList> getAllStatusLists() {
-        return statusListRepository.findAll();
+    public List<StatusListSummary> getAllStatusLists() {
+        return statusListRepository.findAllByOrderByListIdAscVersionDesc();
     }
 
     /**
@@ -328,44 +513,117 @@ public class StatusListService {
 
     // Métodos privados auxiliares
 
-    private StatusListData generateStatusListData(String listId, String issuer, List<Integer> statusList) {
-        String now = LocalDateTime.now().format(DateTimeFormatter.ISO_DATE_TIME);
+    /**
+     * Grava a nova versão e avança o ponteiro da lista na mesma transação
+     */
+    private StatusList saveVersion(StatusList statusList) {
+        return transactionTemplate.execute(status -> {
+            StatusList saved = statusListRepository.save(statusList);
+            int advanced = statusListHeadRepository.advance(saved.getListId(), saved.getVersion(), saved.getId(),
+                                                            LocalDateTime.now());
+            if (advanced == 0 && !statusListHeadRepository.existsById(saved.getListId())) {
+                statusListHeadRepository.save(new StatusListHead(saved.getListId(), saved.getVersion(), saved.getId()));
+            }
+            return saved;
+        });
+    }
+
+    private StatusList findVersion(String listId, Long version) {
+        return statusListRepository.findByListIdAndVersion(listId, version)
+            .orElseThrow(() -> new NoSuchElementException("Versão " + version + " da StatusList não encontrada: " + listId));
+    }
+
+    private String documentJson(StatusList statusList) throws Exception {
+        if (statusList.isSnapshot()) {
+            return statusList.getStatusListData();
+        }
+
+        // Versão mais recente já materializada em memória
+        StatusBitstring bitstring = statusListCache.get(statusList.getListId())
+            .filter(snapshot -> statusList.getVersion().equals(snapshot.version()))
+            .map(StatusListCache.Snapshot::bitstring)
+            .orElseGet(() -> statusListCache.bitstringAt(statusList.getListId(), statusList.getVersion()));
+        return renderDocument(statusList, bitstring);
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(data);
+        }
+        return buffer.toByteArray();
+    }
+
+    /**
+     * Monta uma nova versão com o hash do documento completo. Versões snapshot guardam o JSON;
+     * as demais guardam só os índices alterados em relação à versão anterior.
+     */
+    private StatusList buildVersion(String listId, String uri, Long version, String purpose, String issuer,
+                                    String issuerWalletAddress, StatusBitstring bitstring,
+                                    Collection<Integer> changedIndices) throws Exception {
+        StatusList statusList = new StatusList(listId, uri, null, version, purpose, issuer);
+        statusList.setIssuerWalletAddress(issuerWalletAddress);
+        // Sem frações de segundo, que o banco poderia arredondar
+        statusList.setCreatedAt(statusList.getCreatedAt().truncatedTo(ChronoUnit.SECONDS));
+
+        String statusListJson = renderDocument(statusList, bitstring);
+        statusList.setHash(calculateHash(statusListJson));
+
+        if (version == 1 || snapshotInterval <= 1 || version % snapshotInterval == 0) {
+            statusList.setStatusListData(statusListJson);
+        } else {
+            statusList.setDeltaIndices(changedIndices.stream()
+                .sorted()
+                .map(String::valueOf)
+                .collect(Collectors.joining(",")));
+        }
+        return statusList;
+    }
+
+    /**
+     * Documento da versão; as datas vêm do createdAt (em segundos) para que a reconstrução
+     * gere exatamente o mesmo JSON
+     */
+    private String renderDocument(StatusList statusList, StatusBitstring bitstring) throws Exception {
+        LocalDateTime issuedAt = statusList.getCreatedAt().truncatedTo(ChronoUnit.SECONDS);
+        return objectMapper.writeValueAsString(
+            generateStatusListData(statusList.getListId(), statusList.getIssuer(), bitstring, issuedAt));
+    }
+
+    private StatusListData generateStatusListData(String listId, String issuer, StatusBitstring statusList,
+                                                  LocalDateTime issuedAt) {
+        String issued = issuedAt.format(DateTimeFormatter.ISO_DATE_TIME);
 
         StatusListData data = new StatusListData();
         data.setId("https://idbra.example/status/" + listId + ".json");
         data.setIssuer(issuer);
-        data.setIssued(now);
-        data.setValidFrom(now);
-        data.setValidUntil(LocalDateTime.now().plusYears(10).format(DateTimeFormatter.ISO_DATE_TIME));
-        data.setCredentialSubject(Map.of(
-            "id", "https://idbra.example/status/" + listId + ".json",
-            "type", "StatusList2021",
-            "statusPurpose", "revocation",
-            "encodedList", encodeStatusList(statusList)
-        ).toString());
-        data.setStatusList(statusList);
+        data.setIssued(issued);
+        data.setValidFrom(issued);
+        data.setValidUntil(issuedAt.plusYears(10).format(DateTimeFormatter.ISO_DATE_TIME));
+        Map<String, Object> credentialSubject = new LinkedHashMap<>();
+        credentialSubject.put("id", "https://idbra.example/status/" + listId + ".json#list");
+        credentialSubject.put("type", "StatusList2021");
+        credentialSubject.put("statusPurpose", "revocation");
+        credentialSubject.put("encodedList", statusList.encode());
+        data.setCredentialSubject(credentialSubject);
 
         return data;
     }
 
-    private List<Integer> getCurrentStatusList(String listId) throws Exception {
-        Optional<StatusList> latestOpt = statusListRepository.findLatestVersionByListId(listId);
-        if (latestOpt.isEmpty()) {
-            return new ArrayList<>();
-        }
-
-        StatusList latest = latestOpt.get();
-        StatusListData data = objectMapper.readValue(latest.getStatusListData(), StatusListData.class);
-        return data.getStatusList() != null ? data.getStatusList() : new ArrayList<>();
+    /**
+     * Bitstring da versão mais recente lido do banco (não do cache), para gerar a próxima versão
+     */
+    private StatusBitstring getCurrentBitstring(String listId) throws Exception {
+        return statusListCache.load(listId)
+            .map(snapshot -> snapshot.bitstring().copy())
+            .orElseGet(StatusBitstring::new);
     }
 
-    private String encodeStatusList(List<Integer> statusList) {
-        // Codificar lista de status como base64 (simplificado)
-        StringBuilder encoded = new StringBuilder();
-        for (Integer status : statusList) {
-            encoded.append(status == 1 ? "1" : "0");
+    private boolean isLegacyFormat(String statusListJson) throws Exception {
+        if (statusListJson == null || statusListJson.isBlank()) {
+            return false;
         }
-        return encoded.toString();
+        return !objectMapper.readTree(statusListJson).path("credentialSubject").path("encodedList").isTextual();
     }
 
     private String calculateHash(String data) {
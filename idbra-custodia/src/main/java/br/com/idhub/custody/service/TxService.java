@@ -19,10 +19,12 @@ public class TxService {
 
     private final Web3j web3j;
     private final Credentials credentials;
+    private final ReceiptPoller receiptPoller;
 
-    public TxService(Web3j web3j, Credentials credentials) {
+    public TxService(Web3j web3j, Credentials credentials, ReceiptPoller receiptPoller) {
         this.web3j = web3j;
         this.credentials = credentials;
+        this.receiptPoller = receiptPoller;
     }
 
     public TxRequest createTransaction(String to, BigInteger value, String data) {
@@ -83,22 +85,7 @@ public class TxService {
     }
 
     public CompletableFuture<TransactionReceipt> waitForTransactionReceipt(String txHash) {
-        return web3j.ethGetTransactionReceipt(txHash)
-                .sendAsync()
-                .thenCompose(receipt -> {
-                    if (receipt.getTransactionReceipt().isPresent()) {
-                        return CompletableFuture.completedFuture(receipt.getTransactionReceipt().get());
-                    } else {
-                        // Aguardar e tentar novamente
-                        try {
-                            Thread.sleep(1000);
-                            return waitForTransactionReceipt(txHash);
-                        } catch (InterruptedException e) {
-                            Thread.currentThread().interrupt();
-                            throw new RuntimeException(e);
-                        }
-                    }
-                });
+        return receiptPoller.register(txHash);
     }
 
     public String getTransactionStatus(String txHash) {
@@ -0,0 +1,241 @@
+package br.com.idhub.custody.service;
+
+import br.com.idhub.custody.domain.CredentialVerification;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache limitado de resultados de verificação, indexado pelo SHA-256 do token JWS.
+ * Cada entrada guarda a versão da StatusList e o bit de revogação usados no resultado: quando
+ * chega uma versão nova, a entrada só é descartada se o bit da credencial mudou.
+ * Cada entrada vale até o menor entre o expiresAt da credencial e a idade máxima, fixado no put.
+ * Um resultado VALID nunca sobrevive à expiração da credencial.
+ */
+@Component
+public class VerificationCache {
+
+    @Value("${credential.verification-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${credential.verification-cache.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${credential.verification-cache.ttl-ms:300000}")
+    private long ttlMs;
+
+    private final StatusListCache statusListCache;
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    // Ordem de acesso: a entrada mais antiga é a menos usada recentemente
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    public VerificationCache(MeterRegistry meterRegistry, StatusListCache statusListCache) {
+        this.statusListCache = statusListCache;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void registerMetrics() {
+        FunctionCounter.builder("credential.verification_cache.hits", hits, AtomicLong::get)
+                .description("Verificações respondidas pelo cache")
+                .register(meterRegistry);
+        FunctionCounter.builder("credential.verification_cache.misses", misses, AtomicLong::get)
+                .description("Verificações executadas por ausência ou invalidação no cache")
+                .register(meterRegistry);
+        FunctionCounter.builder("credential.verification_cache.evictions", evictions, AtomicLong::get)
+                .description("Resultados removidos do cache (expiração, capacidade ou invalidação)")
+                .register(meterRegistry);
+        Gauge.builder("credential.verification_cache.size", this, VerificationCache::size)
+                .description("Resultados de verificação atualmente em memória")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Chave do cache: SHA-256 (hex) do token
+     */
+    public static String key(String jwsToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(jwsToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("Erro ao calcular hash do token", e);
+        }
+    }
+
+    /**
+     * Resultado em cache ainda válido para o estado atual da StatusList, ou null
+     */
+    public CredentialVerification get(String key) {
+        if (!enabled) {
+            return null;
+        }
+
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+            if (entry == null) {
+                misses.incrementAndGet();
+                return null;
+            }
+            if (entry.isExpired(System.currentTimeMillis())) {
+                remove(key);
+                misses.incrementAndGet();
+                return null;
+            }
+        }
+
+        if (entry.statusListId != null && !isStatusUnchanged(entry)) {
+            synchronized (entries) {
+                remove(key);
+            }
+            misses.incrementAndGet();
+            return null;
+        }
+
+        hits.incrementAndGet();
+        return entry.result;
+    }
+
+    /**
+     * Armazena um resultado. statusListId/index/version/revoked descrevem o bit consultado;
+     * statusListId nulo quando o resultado não depende da StatusList (ex.: credencial já revogada).
+     * expiresAt é a expiração da credencial e limita a vida da entrada.
+     */
+    public void put(String key, CredentialVerification result, String statusListId, Integer statusListIndex,
+                    Long statusListVersion, boolean revoked, LocalDateTime expiresAt) {
+        if (!enabled) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        long deadline = now + ttlMs;
+        if (expiresAt != null) {
+            deadline = Math.min(deadline, expiresAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        }
+        if (deadline <= now) {
+            return;
+        }
+
+        Entry entry = new Entry(result, statusListId, statusListIndex, statusListVersion, revoked, deadline);
+        synchronized (entries) {
+            entries.put(key, entry);
+
+            Iterator<String> iterator = entries.keySet().iterator();
+            while (entries.size() > maxEntries && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Remove os resultados de uma credencial, ex.: quando o status no banco muda
+     */
+    public void invalidateCredential(String credentialId) {
+        if (credentialId == null) {
+            return;
+        }
+        synchronized (entries) {
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                if (credentialId.equals(iterator.next().result.getCredentialId())) {
+                    iterator.remove();
+                    evictions.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    /**
+     * Varredura periódica das entradas expiradas
+     */
+    @Scheduled(fixedDelayString = "${credential.verification-cache.sweep-interval-ms:60000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().isExpired(now)) {
+                    iterator.remove();
+                    evictions.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Mesma versão da lista: nada mudou. Versão nova: o resultado continua válido se o bit é o mesmo.
+     */
+    private boolean isStatusUnchanged(Entry entry) {
+        Optional<StatusListCache.Snapshot> snapshotOpt = statusListCache.get(entry.statusListId);
+        if (snapshotOpt.isEmpty()) {
+            return false;
+        }
+
+        StatusListCache.Snapshot snapshot = snapshotOpt.get();
+        if (snapshot.version().equals(entry.statusListVersion)) {
+            return true;
+        }
+        if (snapshot.isRevoked(entry.statusListIndex) != entry.revoked) {
+            return false;
+        }
+        entry.statusListVersion = snapshot.version();
+        return true;
+    }
+
+    private void remove(String key) {
+        if (entries.remove(key) != null) {
+            evictions.incrementAndGet();
+        }
+    }
+
+    private static final class Entry {
+        private final CredentialVerification result;
+        private final String statusListId;
+        private final Integer statusListIndex;
+        private volatile Long statusListVersion;
+        private final boolean revoked;
+        private final long expiresAtMillis;
+
+        private Entry(CredentialVerification result, String statusListId, Integer statusListIndex,
+                      Long statusListVersion, boolean revoked, long expiresAtMillis) {
+            this.result = result;
+            this.statusListId = statusListId;
+            this.statusListIndex = statusListIndex;
+            this.statusListVersion = statusListVersion;
+            this.revoked = revoked;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+
+        private boolean isExpired(long nowMillis) {
+            return nowMillis >= expiresAtMillis;
+        }
+    }
+}
@@ -161,7 +161,7 @@ public class WalletService {
             Optional<Wallet> walletOpt = walletRepository.findByAddress(address);
             if (walletOpt.isPresent()) {
                 Wallet wallet = walletOpt.get();
-                String decryptedPrivateKey = cryptoService.decryptPrivateKey(wallet.getEncryptedPrivateKey(), password);
+                String decryptedPrivateKey = cryptoService.decryptPrivateKey(wallet.getAddress(), wallet.getEncryptedPrivateKey(), password);
                 Credentials credentials = Credentials.create(decryptedPrivateKey);
 
                 // Garantir que o endereço retornado tenha formato correto
@@ -186,7 +186,7 @@ public class WalletService {
             Optional<Wallet> walletOpt = walletRepository.findByAddress(address);
             if (walletOpt.isPresent()) {
                 Wallet wallet = walletOpt.get();
-                String decryptedPrivateKey = cryptoService.decryptWithMasterPassword(wallet.getEncryptedPrivateKey());
+                String decryptedPrivateKey = cryptoService.decryptWithMasterPassword(wallet.getAddress(), wallet.getEncryptedPrivateKey());
                 Credentials credentials = Credentials.create(decryptedPrivateKey);
 
                 // Garantir que o endereço retornado tenha formato correto
@@ -240,6 +240,9 @@ public class WalletService {
             Wallet wallet = walletOpt.get();
             wallet.setActive(false);
             walletRepository.save(wallet);
+
+            // Descartar chaves derivadas em cache da carteira desativada
+            cryptoService.invalidateWalletKeys(wallet.getAddress());
             return true;
         }
         return false;
@@ -318,7 +321,7 @@ public class WalletService {
         }
 
         // Descriptografar chave privada
-        String privateKeyHex = cryptoService.decryptPrivateKey(wallet.getEncryptedPrivateKey(), masterPassword);
+        String privateKeyHex = cryptoService.decryptPrivateKey(wallet.getAddress(), wallet.getEncryptedPrivateKey(), masterPassword);
 
         // Criar credenciais Web3j
         return Credentials.create(privateKeyHex);
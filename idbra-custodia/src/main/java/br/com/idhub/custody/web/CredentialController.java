@@ -5,10 +5,22 @@ import br.com.idhub.custody.service.CredentialService;
 import br.com.idhub.custody.service.BlockchainService;
 import br.com.idhub.custody.repository.CredentialRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.web3j.protocol.core.methods.response.TransactionReceipt;
 
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -27,12 +39,42 @@ public class CredentialController {
     @Autowired
     private CredentialRepository credentialRepository;
 
+    private static final String NDJSON = "application/x-ndjson";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    // Datas ISO-8601 nas linhas NDJSON da listagem
+    private final ObjectMapper listingMapper = new ObjectMapper()
+        .findAndRegisterModules()
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Value("${credential.listing.default-page-size:100}")
+    private int defaultPageSize;
+
+    @Value("${credential.listing.max-page-size:1000}")
+    private int maxPageSize;
+
+    @Value("${credential.batch.max-size:50000}")
+    private int maxBatchSize;
+
+    @Value("${credential.verification.batch-max-size:50000}")
+    private int maxVerifyBatchSize;
+
+    @Value("${credential.issuance.async-default:false}")
+    private boolean asyncIssuanceDefault;
+
     /**
      * Criar credencial verificável
      */
     @PostMapping
-    public ResponseEntity<Map<String, Object>> createCredential(@RequestBody CredentialRequest request) {
+    public ResponseEntity<Map<String, Object>> createCredential(
+            @RequestBody CredentialRequest request,
+            @RequestParam(required = false) Boolean async) {
         try {
+            if (async != null ? async : asyncIssuanceDefault) {
+                return submitCredential(request);
+            }
+
             String vc = credentialService.createCredential(request);
 
             // Extrair o credentialId do JWT para retornar na resposta
@@ -56,6 +98,111 @@ public class CredentialController {
         }
     }
 
+    /**
+     * Emissão em massa de credenciais; o resultado de cada item é enviado como NDJSON
+     * à medida que o registro on-chain conclui
+     */
+    @PostMapping(value = "/batch", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> createCredentialBatch(@RequestBody List<CredentialRequest> requests) {
+        if (requests == null || requests.isEmpty() || requests.size() > maxBatchSize) {
+            StreamingResponseBody error = out -> out.write(objectMapper.writeValueAsBytes(Map.of(
+                "success", false,
+                "error", "O lote deve conter entre 1 e " + maxBatchSize + " credenciais",
+                "timestamp", java.time.LocalDateTime.now().toString()
+            )));
+            return ResponseEntity.badRequest().contentType(MediaType.APPLICATION_JSON).body(error);
+        }
+
+        StreamingResponseBody body = out -> {
+            Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            credentialService.issueCredentialBatch(requests, line -> {
+                try {
+                    writer.write(objectMapper.writeValueAsString(line));
+                    writer.write('\n');
+                    writer.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        };
+
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
+    }
+
+    /**
+     * Página por keyset sobre id (nextCursor = último id da página, ou null no fim) ou NDJSON completo
+     */
+    private ResponseEntity<?> listCredentials(CredentialService.CredentialFilter filter, String value,
+                                              long after, Integer limit, boolean stream) {
+        if (stream) {
+            StreamingResponseBody body = out -> {
+                Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+                credentialService.streamCredentials(filter, value, after, credential -> {
+                    try {
+                        writer.write(listingMapper.writeValueAsString(credential));
+                        writer.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                writer.flush();
+            };
+            return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
+        }
+
+        try {
+            int pageSize = Math.min(limit != null && limit > 0 ? limit : defaultPageSize, maxPageSize);
+            List<CredentialSummary> items = credentialService.listCredentials(filter, value, after, pageSize);
+
+            Map<String, Object> page = new LinkedHashMap<>();
+            page.put("items", items);
+            page.put("limit", pageSize);
+            page.put("nextCursor", items.size() == pageSize ? items.get(items.size() - 1).id() : null);
+            return ResponseEntity.ok(page);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    private ResponseEntity<Map<String, Object>> submitCredential(CredentialRequest request) throws Exception {
+        Credential credential = credentialService.submitCredential(request);
+        String statusUrl = "/api/credentials/" + credential.getCredentialId() + "/issuance-status";
+
+        Map<String, Object> response = Map.of(
+            "credentialId", credential.getCredentialId(),
+            "jwt", credential.getJwsToken(),
+            "status", credential.getStatus(),
+            "statusUrl", statusUrl,
+            "success", true,
+            "timestamp", java.time.LocalDateTime.now().toString()
+        );
+
+        return ResponseEntity.accepted().location(URI.create(statusUrl)).body(response);
+    }
+
+    /**
+     * Consultar o andamento do registro on-chain de uma credencial
+     */
+    @GetMapping("/{credentialId}/issuance-status")
+    public ResponseEntity<Map<String, Object>> getIssuanceStatus(@PathVariable String credentialId) {
+        Optional<Credential> credentialOpt = credentialService.getCredentialById(credentialId);
+        if (credentialOpt.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        Credential credential = credentialOpt.get();
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("credentialId", credential.getCredentialId());
+        response.put("status", credential.getStatus());
+        response.put("anchored", credential.getAnchoredAt() != null);
+        response.put("anchorTxHash", credential.getAnchorTxHash());
+        response.put("anchorAttempts", credential.getAnchorAttempts());
+        response.put("anchorError", credential.getAnchorError());
+        response.put("anchoredAt", credential.getAnchoredAt() != null ? credential.getAnchoredAt().toString() : null);
+        response.put("timestamp", java.time.LocalDateTime.now().toString());
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Verificar credencial
      */
@@ -69,6 +216,36 @@ public class CredentialController {
         }
     }
 
+    /**
+     * Verificação em massa; cada token gera uma linha NDJSON com o seu índice na requisição
+     */
+    @PostMapping(value = "/verify/batch", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> verifyCredentialBatch(@RequestBody List<String> credentials) {
+        if (credentials == null || credentials.isEmpty() || credentials.size() > maxVerifyBatchSize) {
+            StreamingResponseBody error = out -> out.write(objectMapper.writeValueAsBytes(Map.of(
+                "success", false,
+                "error", "O lote deve conter entre 1 e " + maxVerifyBatchSize + " credenciais",
+                "timestamp", java.time.LocalDateTime.now().toString()
+            )));
+            return ResponseEntity.badRequest().contentType(MediaType.APPLICATION_JSON).body(error);
+        }
+
+        StreamingResponseBody body = out -> {
+            Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            credentialService.verifyCredentialBatch(credentials, line -> {
+                try {
+                    writer.write(objectMapper.writeValueAsString(line));
+                    writer.write('\n');
+                    writer.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        };
+
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
+    }
+
     /**
      * Revogar credencial
      */
@@ -131,16 +308,14 @@ public class CredentialController {
     }
 
     /**
-     * Listar todas as credenciais
+     * Listar credenciais (paginação por cursor; stream=true envia todas em NDJSON)
      */
     @GetMapping
-    public ResponseEntity<List<Credential>> getAllCredentials() {
-        try {
-            List<Credential> credentials = credentialService.getAllCredentials();
-            return ResponseEntity.ok(credentials);
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().build();
-        }
+    public ResponseEntity<?> getAllCredentials(
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "false") boolean stream) {
+        return listCredentials(CredentialService.CredentialFilter.ALL, null, after, limit, stream);
     }
 
     /**
@@ -164,39 +339,36 @@ public class CredentialController {
      * Listar credenciais por emissor
      */
     @GetMapping("/issuer/{issuerDid}")
-    public ResponseEntity<List<Credential>> getCredentialsByIssuer(@PathVariable String issuerDid) {
-        try {
-            List<Credential> credentials = credentialService.getCredentialsByIssuer(issuerDid);
-            return ResponseEntity.ok(credentials);
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().build();
-        }
+    public ResponseEntity<?> getCredentialsByIssuer(
+            @PathVariable String issuerDid,
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "false") boolean stream) {
+        return listCredentials(CredentialService.CredentialFilter.ISSUER, issuerDid, after, limit, stream);
     }
 
     /**
      * Listar credenciais por holder
      */
     @GetMapping("/holder/{holderDid}")
-    public ResponseEntity<List<Credential>> getCredentialsByHolder(@PathVariable String holderDid) {
-        try {
-            List<Credential> credentials = credentialService.getCredentialsByHolder(holderDid);
-            return ResponseEntity.ok(credentials);
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().build();
-        }
+    public ResponseEntity<?> getCredentialsByHolder(
+            @PathVariable String holderDid,
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "false") boolean stream) {
+        return listCredentials(CredentialService.CredentialFilter.HOLDER, holderDid, after, limit, stream);
     }
 
     /**
      * Listar credenciais por status
      */
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<Credential>> getCredentialsByStatus(@PathVariable String status) {
-        try {
-            List<Credential> credentials = credentialService.getCredentialsByStatus(status);
-            return ResponseEntity.ok(credentials);
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().build();
-        }
+    public ResponseEntity<?> getCredentialsByStatus(
+            @PathVariable String status,
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "false") boolean stream) {
+        return listCredentials(CredentialService.CredentialFilter.STATUS, status, after, limit, stream);
     }
 
     /**
@@ -220,9 +392,9 @@ public class CredentialController {
      * Listar StatusLists por emissor
      */
     @GetMapping("/statuslist/issuer/{issuer}")
-    public ResponseEntity<List<StatusList>> getStatusListsByIssuer(@PathVariable String issuer) {
+    public ResponseEntity<List<StatusListSummary>> getStatusListsByIssuer(@PathVariable String issuer) {
         try {
-            List<StatusList> statusLists = credentialService.getStatusListsByIssuer(issuer);
+            List<StatusListSummary> statusLists = credentialService.getStatusListsByIssuer(issuer);
             return ResponseEntity.ok(statusLists);
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
@@ -284,8 +456,13 @@ public class CredentialController {
     @GetMapping("/{credentialId}/revocation-status")
     public ResponseEntity<Map<String, Object>> getCredentialRevocationStatus(@PathVariable String credentialId) {
         try {
-            boolean isRevoked = blockchainService.isCredentialRevoked(credentialId);
-            Optional<RevocationRecord> revocationRecord = blockchainService.getCredentialRevocation(credentialId);
+            // As duas leituras saem juntas e seguem no mesmo batch JSON-RPC
+            CompletableFuture<Boolean> revokedFuture = blockchainService.isCredentialRevokedAsync(credentialId);
+            CompletableFuture<Optional<RevocationRecord>> recordFuture =
+                blockchainService.getCredentialRevocationAsync(credentialId);
+
+            boolean isRevoked = revokedFuture.join();
+            Optional<RevocationRecord> revocationRecord = recordFuture.join();
 
             Map<String, Object> response = Map.of(
                 "credentialId", credentialId,
@@ -299,6 +476,39 @@ public class CredentialController {
         }
     }
 
+    /**
+     * Estado on-chain usado na verificação da credencial: revogação, registro, role do emissor
+     * e KYC do titular, lidos em um único eth_call via Multicall3
+     */
+    @GetMapping("/{credentialId}/chain-status")
+    public ResponseEntity<Map<String, Object>> getCredentialChainStatus(@PathVariable String credentialId) {
+        try {
+            Optional<Credential> credentialOpt = credentialService.getCredentialById(credentialId);
+            if (credentialOpt.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+
+            Credential credential = credentialOpt.get();
+            String holderAddress = credential.getHolderWalletAddress() != null
+                ? credential.getHolderWalletAddress()
+                : credential.getHolderDid().replace("did:ethr:", "");
+
+            BlockchainService.CredentialChainStatus chainStatus = blockchainService.getCredentialChainStatusAsync(
+                credentialId, credential.getIssuerWalletAddress(), holderAddress).join();
+
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("credentialId", credentialId);
+            response.put("isRevoked", chainStatus.revoked());
+            response.put("revocationRecord", chainStatus.revocationRecord().orElse(null));
+            response.put("issuerHasRole", chainStatus.issuerHasRole());
+            response.put("holderKycVerified", chainStatus.holderKycVerified());
+            response.put("timestamp", java.time.LocalDateTime.now().toString());
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", String.valueOf(e.getMessage())));
+        }
+    }
+
     /**
      * Verificar se credencial existe na blockchain
      */
@@ -1,6 +1,7 @@
 package br.com.idhub.custody.web;
 
 import br.com.idhub.custody.domain.StatusList;
+import br.com.idhub.custody.domain.StatusListSummary;
 import br.com.idhub.custody.service.StatusListService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -82,6 +83,32 @@ public class StatusListController {
         }
     }
 
+    /**
+     * Migrar StatusList do formato antigo para o bitstring comprimido
+     */
+    @PostMapping("/{listId}/migrate")
+    public ResponseEntity<Map<String, Object>> migrateStatusList(@PathVariable String listId) {
+        try {
+            Optional<StatusList> migrated = statusListService.migrateLegacyStatusList(listId);
+            return ResponseEntity.ok(Map.of(
+                "listId", listId,
+                "migrated", migrated.isPresent(),
+                "version", migrated.map(StatusList::getVersion).orElse(0L)
+            ));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Migrar todas as StatusLists ainda no formato antigo
+     */
+    @PostMapping("/migrate")
+    public ResponseEntity<Map<String, Object>> migrateAllStatusLists() {
+        List<String> migrated = statusListService.migrateLegacyStatusLists();
+        return ResponseEntity.ok(Map.of("migrated", migrated, "count", migrated.size()));
+    }
+
     /**
      * Obter StatusList como JSON
      */
@@ -95,6 +122,19 @@ public class StatusListController {
         }
     }
 
+    /**
+     * Obter o JSON de uma versão específica da StatusList
+     */
+    @GetMapping("/{listId}/versions/{version}/json")
+    public ResponseEntity<String> getStatusListVersionJson(@PathVariable String listId, @PathVariable Long version) {
+        try {
+            String json = statusListService.getStatusListVersionAsJson(listId, version);
+            return ResponseEntity.ok(json);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     /**
      * Obter metadados da StatusList
      */
@@ -112,9 +152,9 @@ public class StatusListController {
      * Listar todas as StatusLists
      */
     @GetMapping
-    public ResponseEntity<List<StatusList>> getAllStatusLists() {
+    public ResponseEntity<List<StatusListSummary>> getAllStatusLists() {
         try {
-            List<StatusList> statusLists = statusListService.getAllStatusLists();
+            List<StatusListSummary> statusLists = statusListService.getAllStatusLists();
             return ResponseEntity.ok(statusLists);
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
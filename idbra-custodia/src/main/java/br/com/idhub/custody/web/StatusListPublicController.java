@@ -0,0 +1,100 @@
+package br.com.idhub.custody.web;
+
+import br.com.idhub.custody.service.StatusListService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Duration;
+import java.util.NoSuchElementException;
+
+/**
+ * Endpoint público das StatusLists para verificadores, no mesmo caminho do statusListCredential
+ * das credenciais. Serve o documento já comprimido da memória, com ETag forte por codificação
+ * (sufixo -gzip no corpo comprimido) e 304 condicional.
+ */
+@RestController
+@RequestMapping("/status")
+public class StatusListPublicController {
+
+    @Autowired
+    private StatusListService statusListService;
+
+    @Value("${status-list.public.max-age-seconds:60}")
+    private long maxAgeSeconds;
+
+    /**
+     * Versão mais recente da StatusList
+     */
+    @GetMapping("/{listId}.json")
+    public ResponseEntity<byte[]> getStatusList(@PathVariable String listId, WebRequest request) {
+        try {
+            return respond(statusListService.getPublishedDocument(listId), request,
+                           CacheControl.maxAge(Duration.ofSeconds(maxAgeSeconds)).cachePublic());
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.notFound().build();
+        } catch (Exception e) {
+            System.err.println("Erro ao servir StatusList " + listId + ": " + e.getMessage());
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * Versão específica: conteúdo imutável, pode ficar em cache indefinidamente
+     */
+    @GetMapping("/{listId}/v/{version}.json")
+    public ResponseEntity<byte[]> getStatusListVersion(@PathVariable String listId, @PathVariable Long version,
+                                                       WebRequest request) {
+        try {
+            return respond(statusListService.getPublishedDocument(listId, version), request,
+                           CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable());
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.notFound().build();
+        } catch (Exception e) {
+            System.err.println("Erro ao servir StatusList " + listId + ": " + e.getMessage());
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    private ResponseEntity<byte[]> respond(StatusListService.PublishedDocument document, WebRequest request,
+                                           CacheControl cacheControl) {
+        boolean gzip = acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        String etag = gzip ? document.gzipEtag() : document.etag();
+        if (request.checkNotModified(etag)) {
+            // 304 com ETag já preenchido pelo checkNotModified
+            return ResponseEntity.status(304).cacheControl(cacheControl).varyBy(HttpHeaders.ACCEPT_ENCODING).build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .eTag(etag)
+            .cacheControl(cacheControl)
+            .varyBy(HttpHeaders.ACCEPT_ENCODING)
+            .contentType(MediaType.APPLICATION_JSON);
+
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(document.gzip());
+        }
+        return response.body(document.json());
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String token : acceptEncoding.split(",")) {
+            String[] parts = token.trim().split(";");
+            String coding = parts[0].trim();
+            if (!coding.equalsIgnoreCase("gzip") && !coding.equals("*")) {
+                continue;
+            }
+            boolean disabled = parts.length > 1 && parts[1].trim().replace(" ", "").matches("q=0(\\.0*)?");
+            return !disabled;
+        }
+        return false;
+    }
+}
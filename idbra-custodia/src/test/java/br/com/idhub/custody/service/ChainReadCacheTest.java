@@ -0,0 +1,71 @@
+package br.com.idhub.custody.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.web3j.protocol.core.DefaultBlockParameter;
+import org.web3j.protocol.core.DefaultBlockParameterNumber;
+import org.web3j.protocol.core.methods.response.EthCall;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ChainReadCacheTest {
+
+    private static final String REGISTRY = "0x34c2AcC42882C0279A64bB1a4B1083D483BdE886";
+    private static final String DATA = "0x01ffc9a7";
+
+    private ChainHeadTracker headTracker;
+    private ChainReadCache readCache;
+    private final List<Long> readBlocks = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        headTracker = new ChainHeadTracker(null, new ReceiptPoller(null));
+        ReflectionTestUtils.setField(headTracker, "maxAgeMs", 60000L);
+
+        readCache = new ChainReadCache(headTracker, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(readCache, "enabled", true);
+        ReflectionTestUtils.setField(readCache, "maxEntries", 100);
+        ReflectionTestUtils.setField(readCache, "invalidation", "selective");
+        readCache.start();
+
+        headTracker.observe(new ChainHeadTracker.Head(100, "0xa", "0x9", null, System.currentTimeMillis()));
+    }
+
+    @Test
+    void readsAtHeadAndServesFromCache() {
+        assertEquals("0x0", readCache.call(REGISTRY, DATA, loader("0x0")).join().getValue());
+        assertEquals("0x0", readCache.call(REGISTRY, DATA, loader("0x1")).join().getValue());
+        assertEquals(List.of(100L), readBlocks);
+    }
+
+    @Test
+    void readsOwnWriteMinedAboveTheHead() {
+        readCache.call(REGISTRY, DATA, loader("0x0")).join();
+
+        // Recibo da transação própria no bloco 102, antes de o head passar de 100
+        readCache.invalidate(REGISTRY, 102);
+
+        assertEquals("0x1", readCache.call(REGISTRY, DATA, loader("0x1")).join().getValue());
+        assertEquals(List.of(100L, 102L), readBlocks);
+
+        // Releitura no mesmo head já vem do cache marcado no bloco da escrita
+        assertEquals("0x1", readCache.call(REGISTRY, DATA, loader("0x2")).join().getValue());
+        assertEquals(2, readBlocks.size());
+    }
+
+    private Function<DefaultBlockParameter, CompletableFuture<EthCall>> loader(String value) {
+        return block -> {
+            readBlocks.add(((DefaultBlockParameterNumber) block).getBlockNumber().longValue());
+            EthCall response = new EthCall();
+            response.setResult(value);
+            return CompletableFuture.completedFuture(response);
+        };
+    }
+}
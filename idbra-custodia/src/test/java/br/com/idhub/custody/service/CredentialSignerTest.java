@@ -0,0 +1,97 @@
+package br.com.idhub.custody.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.web3j.crypto.ECKeyPair;
+import org.web3j.crypto.Keys;
+import org.web3j.crypto.Sign;
+import org.web3j.utils.Numeric;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CredentialSignerTest {
+
+    private static final ECKeyPair ISSUER = ECKeyPair.create(
+        Numeric.toBigInt("0x4c0883a69102937d6231471b5dbb6204fe5129617082792ae468d01a3f362318"));
+    private static final ECKeyPair OTHER = ECKeyPair.create(
+        Numeric.toBigInt("0x8da4ef21b864d2cc526dbdb2a120bd2874c36c9d0a1fb7f8c63d7f7a8b41de8f"));
+
+    private CredentialSigner signer;
+
+    @BeforeEach
+    void setUp() {
+        signer = new CredentialSigner();
+    }
+
+    @Test
+    void verifiesOwnSignature() throws Exception {
+        String token = signer.sign(payload(), "did:ethr:issuer#controller", ISSUER);
+
+        assertTrue(signer.verify(token, address(ISSUER)));
+        // Segunda verificação pela chave pública em cache
+        assertTrue(signer.verify(token, address(ISSUER)));
+        assertEquals(1, signer.getCachedKeyCount());
+    }
+
+    @Test
+    void rejectsWrongIssuerAddress() throws Exception {
+        String token = signer.sign(payload(), null, ISSUER);
+
+        assertFalse(signer.verify(token, address(OTHER)));
+        assertEquals(0, signer.getCachedKeyCount());
+    }
+
+    @Test
+    void rejectsTamperedPayload() throws Exception {
+        String token = signer.sign(payload(), null, ISSUER);
+        assertTrue(signer.verify(token, address(ISSUER)));
+
+        Map<String, Object> tampered = payload();
+        tampered.put("sub", "did:ethr:0x00000000000000000000000000000000000000bb");
+        String[] parts = token.split("\\.");
+        String forged = parts[0] + "." + base64Url(new ObjectMapper().writeValueAsBytes(tampered)) + "." + parts[2];
+
+        assertFalse(signer.verify(forged, address(ISSUER)));
+    }
+
+    @Test
+    void rejectsHighS() throws Exception {
+        String token = signer.sign(payload(), null, ISSUER);
+        int lastDot = token.lastIndexOf('.');
+        byte[] signature = Base64.getUrlDecoder().decode(token.substring(lastDot + 1));
+
+        // (r, n - s) é a outra assinatura válida para o mesmo hash
+        BigInteger s = new BigInteger(1, Arrays.copyOfRange(signature, 32, 64));
+        System.arraycopy(Numeric.toBytesPadded(Sign.CURVE_PARAMS.getN().subtract(s), 32), 0, signature, 32, 32);
+        String malleated = token.substring(0, lastDot + 1) + base64Url(signature);
+
+        assertFalse(signer.verify(malleated, address(ISSUER)));
+        assertTrue(signer.verify(token, address(ISSUER)));
+        assertFalse(signer.verify(malleated, address(ISSUER)));
+    }
+
+    private static Map<String, Object> payload() {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("iss", "did:ethr:" + address(ISSUER));
+        payload.put("sub", "did:ethr:0x00000000000000000000000000000000000000aa");
+        payload.put("jti", "urn:uuid:3f1c2a9e-5b7d-4e8a-9c6f-1d2e3f4a5b6c");
+        return payload;
+    }
+
+    private static String address(ECKeyPair keyPair) {
+        return Numeric.prependHexPrefix(Keys.getAddress(keyPair));
+    }
+
+    private static String base64Url(byte[] bytes) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
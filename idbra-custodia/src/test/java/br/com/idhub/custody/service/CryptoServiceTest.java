@@ -0,0 +1,59 @@
+package br.com.idhub.custody.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.AEADBadTagException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CryptoServiceTest {
+
+    private static final String WALLET = "0x00000000000000000000000000000000000000aa";
+    private static final String PRIVATE_KEY = "0x4c0883a69102937d6231471b5dbb6204fe5129617082792ae468d01a3f362318";
+
+    private CryptoService cryptoService;
+    private DerivedKeyCache derivedKeyCache;
+
+    @BeforeEach
+    void setUp() {
+        derivedKeyCache = new DerivedKeyCache(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(derivedKeyCache, "enabled", true);
+        ReflectionTestUtils.setField(derivedKeyCache, "maxEntries", 100);
+        ReflectionTestUtils.setField(derivedKeyCache, "idleTtlMs", 600000L);
+        ReflectionTestUtils.setField(derivedKeyCache, "absoluteTtlMs", 3600000L);
+
+        cryptoService = new CryptoService();
+        ReflectionTestUtils.setField(cryptoService, "algorithm", "AES");
+        ReflectionTestUtils.setField(cryptoService, "keyLength", 256);
+        ReflectionTestUtils.setField(cryptoService, "iterations", 1000);
+        ReflectionTestUtils.setField(cryptoService, "derivedKeyCache", derivedKeyCache);
+    }
+
+    @Test
+    void decryptsWithCachedKeyForSamePassword() throws Exception {
+        String encrypted = cryptoService.encryptPrivateKey(PRIVATE_KEY, "senha-correta");
+
+        assertEquals(PRIVATE_KEY, cryptoService.decryptPrivateKey(WALLET, encrypted, "senha-correta"));
+        assertEquals(1, derivedKeyCache.size());
+        assertEquals(PRIVATE_KEY, cryptoService.decryptPrivateKey(WALLET, encrypted, "senha-correta"));
+    }
+
+    @Test
+    void rejectsWrongPasswordAfterCacheHit() throws Exception {
+        String encrypted = cryptoService.encryptPrivateKey(PRIVATE_KEY, "senha-correta");
+
+        // Duas leituras com a senha certa: a segunda já sai do cache
+        cryptoService.decryptPrivateKey(WALLET, encrypted, "senha-correta");
+        cryptoService.decryptPrivateKey(WALLET, encrypted, "senha-correta");
+
+        assertThrows(AEADBadTagException.class,
+                     () -> cryptoService.decryptPrivateKey(WALLET, encrypted, "senha-errada"));
+
+        // A chave da senha certa continua válida
+        assertEquals(PRIVATE_KEY, cryptoService.decryptPrivateKey(WALLET, encrypted, "senha-correta"));
+    }
+}
@@ -169,6 +169,7 @@ contract IDBraDIDRegistry is AccessControl, Pausable, ReentrancyGuard {
     error CredentialNotFound();
     error CredentialAlreadyRevoked();
     error CredentialNotRevoked();
+    error InvalidBatch();
 
     // ========= Modifiers =========
 
@@ -418,6 +419,34 @@ contract IDBraDIDRegistry is AccessControl, Pausable, ReentrancyGuard {
         address subject,
         bytes32 credentialHash
     ) external whenNotPaused onlyRole(ISSUER_ROLE) didMustExist(subject) returns (bool) {
+        _issueCredential(credentialId, subject, credentialHash);
+        return true;
+    }
+
+    /**
+     * @notice Registra um lote de credenciais em uma única transação (tudo ou nada)
+     */
+    function issueCredentialBatch(
+        bytes32[] calldata credentialIds,
+        address[] calldata subjects,
+        bytes32[] calldata credentialHashes
+    ) external whenNotPaused onlyRole(ISSUER_ROLE) returns (uint256) {
+        uint256 count = credentialIds.length;
+        if (count == 0 || subjects.length != count || credentialHashes.length != count) revert InvalidBatch();
+
+        for (uint256 i = 0; i < count; i++) {
+            if (!didExists[subjects[i]]) revert DIDNotFound();
+            _issueCredential(credentialIds[i], subjects[i], credentialHashes[i]);
+        }
+
+        return count;
+    }
+
+    function _issueCredential(
+        bytes32 credentialId,
+        address subject,
+        bytes32 credentialHash
+    ) internal {
         if (credentialRevocations[credentialId].credentialHash != bytes32(0)) revert CredentialAlreadyExists();
 
         credentialRevocations[credentialId] = RevocationRecord({
@@ -441,8 +470,6 @@ contract IDBraDIDRegistry is AccessControl, Pausable, ReentrancyGuard {
             credentialHash,
             block.timestamp
         );
-
-        return true;
     }
 
     /**
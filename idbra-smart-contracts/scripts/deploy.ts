@@ -68,12 +68,29 @@ const txGrantIssuer = await slm.write.grantRole([issuerRole, ISSUER], {
 });
 await publicClient.waitForTransactionReceipt({ hash: txGrantIssuer });
 
+// ---------- Deploy Multicall3 ----------
+// Agregador de leituras usado pelo backend (blockchain.multicall-address);
+// reaproveita um Multicall3 já existente na rede quando MULTICALL3_ADDRESS estiver definido
+let multicallAddress = process.env.MULTICALL3_ADDRESS as `0x${string}` | undefined;
+if (multicallAddress) {
+  console.log("\nMulticall3 existente:", multicallAddress);
+} else {
+  console.log("\nDeploying Multicall3...");
+  const multicall = await viem.deployContract("Multicall3", [], {
+    client: { wallet: walletClient, public: publicClient },
+    ...request,
+  });
+  multicallAddress = multicall.address;
+  console.log("Multicall3:", multicallAddress);
+}
+
 console.log("\n✅ Deploy concluido");
 console.log({
   network: connection.networkName,
   deployer: account.address,
   DIDRegistry: did.address,
   StatusListManager: slm.address,
+  Multicall3: multicallAddress,
   ADMIN,
   REGISTRAR,
   ISSUER,
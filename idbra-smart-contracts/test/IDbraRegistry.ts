@@ -1,7 +1,7 @@
 import assert from "node:assert/strict";
 import { describe, it, beforeEach } from "node:test";
 import { network } from "hardhat";
-import { keccak256, toBytes, getAddress, encodePacked, stringToHex } from "viem";
+import { keccak256, toBytes, getAddress, encodePacked, stringToHex, encodeFunctionData, decodeFunctionResult } from "viem";
 
 describe("IDBraUnifiedRegistry - Complete Verifiable Credentials Flow", async function () {
     const { viem } = await network.connect();
@@ -353,6 +353,52 @@ describe("IDBraUnifiedRegistry - Complete Verifiable Credentials Flow", async fu
                 })
             );
         });
+
+        it("Should issue a batch of credentials in a single transaction", async function () {
+            const credentialIds: `0x${string}`[] = [];
+            const credentialHashes: `0x${string}`[] = [];
+
+            for (let i = 0; i < 3; i++) {
+                const credentialHash = keccak256(stringToHex(JSON.stringify({ batch: i })));
+                credentialHashes.push(credentialHash);
+                credentialIds.push(keccak256(encodePacked(["bytes32", "string"], [credentialHash, "batch"])));
+            }
+
+            await didRegistry.write.issueCredentialBatch([
+                credentialIds,
+                credentialIds.map(() => identity1.account.address),
+                credentialHashes
+            ], {
+                account: issuer.account
+            });
+
+            for (let i = 0; i < credentialIds.length; i++) {
+                const revocationRecord = await didRegistry.read.getCredentialRevocation([credentialIds[i]]);
+                assert.equal(revocationRecord.credentialHash, credentialHashes[i]);
+            }
+
+            const info = await didRegistry.read.getIdentityInfo([identity1.account.address]);
+            assert.equal(info[5], 3n); // credentialCount
+        });
+
+        it("Should revert the whole batch when one credential is invalid", async function () {
+            const credentialHash = keccak256(stringToHex(JSON.stringify({ batch: "invalid" })));
+            const credentialId = keccak256(encodePacked(["bytes32", "string"], [credentialHash, "batch"]));
+
+            // Subject sem DID registrado
+            await assert.rejects(
+                didRegistry.write.issueCredentialBatch([
+                    [credentialId, keccak256(credentialId)],
+                    [identity1.account.address, identity2.account.address],
+                    [credentialHash, credentialHash]
+                ], {
+                    account: issuer.account
+                })
+            );
+
+            const metrics = await didRegistry.read.getSystemMetrics();
+            assert.equal(metrics[2], 0n); // totalCredentials
+        });
     });
 
     describe("3. Credential Verification Flow", function () {
@@ -467,6 +513,44 @@ describe("IDBraUnifiedRegistry - Complete Verifiable Credentials Flow", async fu
 
             assert.equal(educationRecord.credentialHash, expectedHash);
         });
+
+        it("Should aggregate verification reads through Multicall3", async function () {
+            const multicall = await viem.deployContract("Multicall3", []);
+
+            const reads = [
+                { functionName: "isCredentialRevoked", args: [educationCredentialId] },
+                { functionName: "getCredentialRevocation", args: [educationCredentialId] },
+                { functionName: "hasRole", args: [ISSUER_ROLE, issuer.account.address] },
+                { functionName: "isKYCVerified", args: [identity1.account.address] },
+            ] as const;
+
+            const calls = reads.map((read) => ({
+                target: didRegistry.address,
+                allowFailure: true,
+                callData: encodeFunctionData({ abi: didRegistry.abi, ...read } as any),
+            }));
+
+            const { result } = await publicClient.simulateContract({
+                address: multicall.address,
+                abi: multicall.abi,
+                functionName: "aggregate3",
+                args: [calls],
+            });
+
+            assert.equal(result.length, 4);
+            result.forEach((item: any) => assert.equal(item.success, true));
+
+            const decoded = result.map((item: any, i: number) => decodeFunctionResult({
+                abi: didRegistry.abi,
+                functionName: reads[i].functionName,
+                data: item.returnData,
+            } as any));
+
+            assert.equal(decoded[0], await didRegistry.read.isCredentialRevoked([educationCredentialId]));
+            assert.deepEqual(decoded[1], await didRegistry.read.getCredentialRevocation([educationCredentialId]));
+            assert.equal(decoded[2], true);
+            assert.equal(decoded[3], true);
+        });
     });
 
     describe("4. Status List Management", function () {